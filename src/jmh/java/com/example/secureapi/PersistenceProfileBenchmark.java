@@ -0,0 +1,112 @@
+package com.example.secureapi;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.secureapi.model.Post;
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.PostRepository;
+import com.example.secureapi.repository.UserRepository;
+
+/**
+ * Repository throughput under the previous persistence settings ({@code show-sql}, default Hikari and
+ * driver settings) and under the {@code prod} profile. Each operation looks up a user by name,
+ * reads a post by id, and every tenth one inserts a post. The schema is created for the run, so
+ * {@code ddl-auto} is overridden in both cases. Like {@code PostBatchBenchmark} it runs against the
+ * configured datasource; the prepared-statement and batch-rewrite settings only take effect on MySQL.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class PersistenceProfileBenchmark {
+
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"baseline", "prod"})
+    private String settings;
+
+    @Param({"1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private PostRepository postRepository;
+    private User author;
+    private long firstPostId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--audit.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=update"));
+        if (settings.equals("baseline")) {
+            args.add("--spring.jpa.show-sql=true");
+            args.add("--persistence.slow-query.enabled=false");
+        } else {
+            args.add("--spring.profiles.active=prod");
+        }
+        context = new SpringApplicationBuilder(SecureAPIApplication.class).run(args.toArray(String[]::new));
+        userRepository = context.getBean(UserRepository.class);
+        postRepository = context.getBean(PostRepository.class);
+
+        List<User> users = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < rows; i++) {
+            users.add(new User("db_user_" + i, "unused-password", User.Role.USER));
+            if (users.size() == SEED_BATCH) {
+                userRepository.saveAll(users);
+                users.clear();
+            }
+        }
+        userRepository.saveAll(users);
+        author = userRepository.findByUsername("db_user_0").orElseThrow();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Post> posts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            posts.add(new Post("Benchmark post " + i, "Benchmark content " + i, author, now, now));
+        }
+        firstPostId = postRepository.saveAll(posts).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        postRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        userRepository.findByUsername("db_user_" + random.nextInt(rows));
+        Object post = postRepository.findById(firstPostId + random.nextInt(rows));
+        if (random.nextInt(10) == 0) {
+            LocalDateTime now = LocalDateTime.now();
+            return postRepository.save(new Post("Benchmark write", "Benchmark content", author, now, now));
+        }
+        return post;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.secureapi;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.UserRepository;
+import com.example.secureapi.util.JwtUtil;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Latency of an authenticated, database-backed request ({@code GET /api/users/{id}}) with platform
+ * and virtual request threads while every JDBC statement takes {@code dbLatencyMillis}. The pool is
+ * sized above Tomcat's 200 workers so the thread model, not the database, is the limit; the maximum
+ * number of requests in flight on the server is printed at the end of each trial. Like
+ * {@code PostBatchBenchmark} it runs against the configured datasource.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(400)
+@State(Scope.Benchmark)
+public class ThreadModeLoadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"50"})
+    private long dbLatencyMillis;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(SecureAPIApplication.class)
+                .initializers(ctx -> {
+                    ctx.getBeanFactory().addBeanPostProcessor(new SlowDataSourcePostProcessor(dbLatencyMillis));
+                    ctx.getBeanFactory().registerSingleton("inFlightFilter", new InFlightFilter());
+                })
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=500",
+                        "--security.enable-rate-limiting=false",
+                        "--spring.jpa.show-sql=false");
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User user = userRepository.findByUsername("load_user")
+                .orElseGet(() -> userRepository.save(new User("load_user", "unused-password", User.Role.USER)));
+        String token = context.getBean(JwtUtil.class).generateToken(user.getUsername(), user.getRole().name());
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/" + user.getId()))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nvirtualThreads=%s maxInFlight=%d%n", virtualThreads, maxInFlight.get());
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private final class InFlightFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Wraps the datasource so that every statement execution holds its connection for an extra
+     * {@code latencyMillis}, standing in for a slow MySQL.
+     */
+    private record SlowDataSourcePostProcessor(long latencyMillis) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+        }
+
+        private Object proxy(Class<?> type, Object target) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                Object result = invoke(method, target, args);
+                if (result instanceof Connection connection && type == DataSource.class) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof Statement statement && type == Connection.class) {
+                    return proxy(method.getReturnType(), statement);
+                }
+                if (type != DataSource.class && type != Connection.class && method.getName().startsWith("execute")) {
+                    Thread.sleep(latencyMillis);
+                }
+                return result;
+            });
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
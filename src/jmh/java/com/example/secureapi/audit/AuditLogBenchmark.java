@@ -0,0 +1,91 @@
+package com.example.secureapi.audit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Caller-side cost of recording an audit event through {@link AsyncAuditLog} compared with
+ * writing it to the same mapped file on the calling thread under a lock. The async log runs with
+ * the BLOCK policy so no events are dropped and the writer's throughput bounds the result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditLogBenchmark {
+
+    private Path directory;
+    private AsyncAuditLog asyncLog;
+    private AuditFileWriter syncWriter;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("audit-bench");
+        asyncLog = new AsyncAuditLog(
+                List.of(new AuditFileWriter(directory.resolve("async"), 64 * 1024 * 1024, 4, false)),
+                8192, 256, AsyncAuditLog.OverflowPolicy.BLOCK, Duration.ofSeconds(1), Duration.ofMillis(1),
+                new SimpleMeterRegistry());
+        syncWriter = new AuditFileWriter(directory.resolve("sync"), 64 * 1024 * 1024, 4, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        asyncLog.close();
+        syncWriter.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void recordAsync() {
+        asyncLog.record(AuditEventType.LOGIN_SUCCESS, "bench_user", "10.0.0.1", null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordAsyncContended() {
+        recordAsync();
+    }
+
+    @Benchmark
+    public void writeSync() throws IOException {
+        AuditEvent event = new AuditEvent(System.currentTimeMillis(), AuditEventType.LOGIN_SUCCESS, "bench_user",
+                "10.0.0.1", null);
+        synchronized (syncWriter) {
+            syncWriter.write(List.of(event));
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void writeSyncContended() throws IOException {
+        writeSync();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.secureapi.compression;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.dto.PostPage;
+import com.example.secureapi.dto.PostSummary;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * CPU time (the score, single-threaded) and bytes on the wire ({@code wireBytes / responses}) per
+ * response for the post endpoints' bodies: a single post with 4 KB of content and a 50-item page of
+ * summaries, serialized as JSON, Smile or CBOR, with or without Blackbird, and sent through
+ * {@link CompressionFilter} as identity, gzip or brotli.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    @Param({"post", "page"})
+    public String body;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"identity", "gzip", "br"})
+    public String encoding;
+
+    @Param({"true", "false"})
+    public boolean blackbird;
+
+    private CompressionFilter filter;
+    private ObjectMapper mapper;
+    private MediaType contentType;
+    private Object payload;
+
+    @Setup
+    public void setup() {
+        filter = new CompressionFilter(List.of(ContentEncoding.BROTLI, ContentEncoding.GZIP), 4, 6, 1024,
+                List.of(MediaType.APPLICATION_JSON, MediaType.parseMediaType("application/x-jackson-smile"),
+                        MediaType.parseMediaType("application/cbor")));
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        contentType = switch (format) {
+            case "smile" -> MediaType.parseMediaType("application/x-jackson-smile");
+            case "cbor" -> MediaType.parseMediaType("application/cbor");
+            default -> MediaType.APPLICATION_JSON;
+        };
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().factory(factory);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        mapper = builder.build();
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        if (body.equals("post")) {
+            payload = new PostDetail(42L, "Release notes for the gateway", "The gateway now balances requests. "
+                    .repeat(120), 7L, "alice", now, now, 3L);
+        } else {
+            List<PostSummary> items = new ArrayList<>();
+            for (long i = 0; i < 50; i++) {
+                items.add(new PostSummary(1000 - i, "Post number " + i + " about caching", "user" + (i % 7),
+                        now.minusHours(i), now.minusHours(i)));
+            }
+            payload = new PostPage<>(items, "MjAyNi0wMS0wMVQxMjowMDo5NTA");
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+        public long wireBytes;
+        public long responses;
+    }
+
+    @Benchmark
+    public long respond(Wire wire) throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        if (!encoding.equals("identity")) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, encoding);
+        }
+        CountingResponse response = new CountingResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType(contentType.toString());
+            mapper.writeValue(res.getOutputStream(), payload);
+        });
+        wire.wireBytes += response.bytes;
+        wire.responses++;
+        return response.bytes;
+    }
+
+    // counts what would go on the wire; the mock's own stream copies byte by byte
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                bytes++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes += len;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+
+        CountingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+}
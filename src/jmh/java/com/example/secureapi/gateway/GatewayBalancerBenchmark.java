@@ -0,0 +1,102 @@
+package com.example.secureapi.gateway;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.sun.net.httpserver.HttpServer;
+
+import jakarta.servlet.ServletException;
+
+/**
+ * Proxy latency distribution over three local stub upstreams: one steady, one that stalls 10% of
+ * requests for 100 ms, and one that answers 503 to 20% of requests. Compare the p99/p99.9 rows
+ * across balancers.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class GatewayBalancerBenchmark {
+
+    @Param({"ROUND_ROBIN", "LEAST_REQUESTS", "EWMA"})
+    public LoadBalancer.Type balancer;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private ExecutorService executor;
+    private HttpClient client;
+    private GatewayProxyFilter filter;
+
+    @Setup
+    public void setup() throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        List<URI> uris = List.of(stub(0, 0), stub(0.1, 0), stub(0, 0.2));
+        UpstreamPolicy policy = new UpstreamPolicy(64, 5, Duration.ofSeconds(5), Duration.ofMillis(50), 50, 20, 0.5,
+                Duration.ofSeconds(5), 3);
+        filter = new GatewayProxyFilter(RouteTrie.compile(List.of(new GatewayRoute("bench", "/api", Set.of(),
+                new UpstreamPool("bench", uris, LoadBalancer.of(balancer), policy, null), false,
+                Duration.ofSeconds(2)))), client);
+    }
+
+    private URI stub(double stallRate, double errorRate) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                Thread.sleep(random.nextDouble() < stallRate ? 100 : 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(random.nextDouble() < errorRate ? 503 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+        servers.add(server);
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @TearDown
+    public void tearDown() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+        client.close();
+    }
+
+    @Benchmark
+    public int proxy() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items"), response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
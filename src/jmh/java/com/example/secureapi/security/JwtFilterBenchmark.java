@@ -0,0 +1,95 @@
+package com.example.secureapi.security;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.UserRepository;
+import com.example.secureapi.util.JwtClaimsCache;
+import com.example.secureapi.util.JwtKeyRing;
+import com.example.secureapi.util.JwtUtil;
+import com.example.secureapi.util.TokenDenylist;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+import jakarta.servlet.ServletException;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private JwtFilter jwtFilter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = new JwtUtil(new JwtClaimsCache(10_000), JwtKeyRing.generate(Jwts.SIG.ES256),
+                new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48)));
+        jwtFilter = new JwtFilter(authentication -> authentication, jwtUtil,
+                new SecurityMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)),
+                new CustomUserDetailsService(userRepository(new User("bench_user", "unused-password", User.Role.USER)),
+                        null, 10_000, Duration.ofMinutes(1), false, 10_000, Duration.ofSeconds(30)));
+        authorizationHeader = "Bearer " + jwtUtil.generateToken("bench_user", "USER");
+    }
+
+    /**
+     * A repository that only answers {@code findByUsername}; the cache should keep it off the hot path.
+     */
+    private static UserRepository userRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[] {UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByUsername")) {
+                        return Optional.of(user).filter(u -> u.getUsername().equals(args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternal() throws IOException, ServletException {
+        return filter();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MockHttpServletResponse doFilterInternalContended() throws IOException, ServletException {
+        return filter();
+    }
+
+    private MockHttpServletResponse filter() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtFilter.doFilterInternal(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
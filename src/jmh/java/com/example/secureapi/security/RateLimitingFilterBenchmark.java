@@ -0,0 +1,87 @@
+package com.example.secureapi.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.secureapi.audit.AuditLog;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+import jakarta.servlet.ServletException;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitingFilterBenchmark {
+
+    private static final int CLIENT_COUNT = 100_000;
+
+    private RateLimitingFilter rateLimitingFilter;
+    private String[] clientIps;
+
+    @Setup
+    public void setup() {
+        List<RateLimitBandwidth> limits = List.of(RateLimitBandwidth.of(10, Duration.ofMinutes(1)));
+        RateLimitPolicy policy = new RateLimitPolicy("ip", List.of(), List.of(), Set.of(), RateLimitPolicy.KeyType.IP,
+                limits, new RateLimitBucketStore(limits, 262_144));
+        rateLimitingFilter = new RateLimitingFilter(new RateLimitPolicyEngine(List.of(policy)),
+                new SecurityMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)), AuditLog.NOOP);
+        clientIps = new String[CLIENT_COUNT];
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+            clientIps[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse singleClient() throws IOException, ServletException {
+        return filter(clientIps[0]);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse manyClients() throws IOException, ServletException {
+        return filter(clientIps[ThreadLocalRandom.current().nextInt(CLIENT_COUNT)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MockHttpServletResponse singleClientContended() throws IOException, ServletException {
+        return filter(clientIps[0]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MockHttpServletResponse manyClientsContended() throws IOException, ServletException {
+        return filter(clientIps[ThreadLocalRandom.current().nextInt(CLIENT_COUNT)]);
+    }
+
+    private MockHttpServletResponse filter(String clientIp) throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.setRemoteAddr(clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitingFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
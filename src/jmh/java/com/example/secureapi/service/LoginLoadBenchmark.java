@@ -0,0 +1,111 @@
+package com.example.secureapi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.secureapi.SecureAPIApplication;
+import com.example.secureapi.dto.LoginDto;
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.UserRepository;
+
+/**
+ * Login throughput under a credential-stuffing mix: nine in ten attempts name one of
+ * {@code attackUsernames} accounts that do not exist, the rest are real users with the right
+ * password. {@code cached=false} sizes the user caches to zero so every attempt queries the
+ * database, as logins did before the credential cache. Like {@code PostBatchBenchmark} it runs
+ * against the configured datasource.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class LoginLoadBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    @Param({"1000"})
+    private int users;
+
+    @Param({"20000"})
+    private int attackUsernames;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String cacheSize = cached ? "10000" : "0";
+        context = new SpringApplicationBuilder(SecureAPIApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--audit.enabled=false",
+                        "--security.user-cache.max-size=" + cacheSize,
+                        "--security.user-cache.negative.max-size=" + cacheSize,
+                        "--security.password.hashing.queue-capacity=64");
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        // one hash for every account keeps seeding from taking minutes of bcrypt
+        String hash = context.getBean(PasswordHashingService.class).hash(PASSWORD);
+        List<User> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < users; i++) {
+            batch.add(new User("member_" + i, hash, User.Role.USER));
+            if (batch.size() == SEED_BATCH) {
+                userRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        userRepository.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Object login() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LoginDto attempt = random.nextInt(10) == 0
+                ? loginDto("member_" + random.nextInt(users), PASSWORD)
+                : loginDto("bot_" + random.nextInt(attackUsernames), "hunter22");
+        try {
+            return userService.login(attempt, "127.0.0.1");
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static LoginDto loginDto(String username, String password) {
+        LoginDto dto = new LoginDto();
+        dto.setUsername(username);
+        dto.setPassword(password);
+        return dto;
+    }
+}
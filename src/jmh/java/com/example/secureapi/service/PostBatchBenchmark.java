@@ -0,0 +1,94 @@
+package com.example.secureapi.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.secureapi.SecureAPIApplication;
+import com.example.secureapi.model.Post;
+import com.example.secureapi.repository.PostRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Throughput of the per-row create path against the chunked bulk path. Boots the application
+ * against the configured datasource, so point {@code spring.datasource.*} at a disposable database,
+ * e.g. {@code -Djmh.args="-jvmArgs -Dspring.datasource.url=jdbc:mysql://localhost:3306/secure_api_bench"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostBatchBenchmark {
+
+    private static final int POSTS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostBatchService postBatchService;
+    private PostRepository postRepository;
+    private List<Post> posts;
+    private byte[] postsJson;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = new SpringApplicationBuilder(SecureAPIApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false");
+        postService = context.getBean(PostService.class);
+        postBatchService = context.getBean(PostBatchService.class);
+        postRepository = context.getBean(PostRepository.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        posts = new ArrayList<>(POSTS);
+        for (int i = 0; i < POSTS; i++) {
+            posts.add(new Post("Benchmark post " + i, "Benchmark content " + i, null, now, now));
+        }
+        postsJson = context.getBean(ObjectMapper.class).writeValueAsBytes(posts);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearPosts() {
+        postRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public void createPerRow() {
+        for (Post post : posts) {
+            post.setId(null);
+            postService.createPost(post);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public void createBatch() throws IOException {
+        postBatchService.createAll(new ByteArrayInputStream(postsJson), OutputStream.nullOutputStream());
+    }
+}
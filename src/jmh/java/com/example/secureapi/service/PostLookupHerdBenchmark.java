@@ -0,0 +1,104 @@
+package com.example.secureapi.service;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.repository.PostRepository;
+import com.example.secureapi.util.SingleFlight;
+
+/**
+ * A thundering herd on a handful of hot posts that are not in the cache: 64 callers look up one of
+ * four ids against a repository that takes 5 ms per query and, like a connection pool, runs at most
+ * 8 queries at once. Compare the p99 rows and the {@code queries} against the {@code lookups}
+ * counter with and without coalescing.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class PostLookupHerdBenchmark {
+
+    private static final int HOT_POSTS = 4;
+    private static final long QUERY_MILLIS = 5;
+
+    @Param({"true", "false"})
+    public boolean coalesce;
+
+    private final Semaphore connections = new Semaphore(8);
+    private final InheritableThreadLocal<Counters> caller = new InheritableThreadLocal<>();
+    private PostRepository repository;
+    private PostService postService;
+
+    @Setup
+    public void setup() {
+        repository = (PostRepository) Proxy.newProxyInstance(PostRepository.class.getClassLoader(),
+                new Class<?>[] {PostRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findDetailById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return Optional.of(query((Long) args[0]));
+                });
+        postService = new PostService(repository, null, new SingleFlight<>("post", Duration.ofSeconds(2)));
+    }
+
+    private PostDetail query(Long id) throws InterruptedException {
+        connections.acquire();
+        try {
+            caller.get().queries++;
+            Thread.sleep(QUERY_MILLIS);
+            return new PostDetail(id, "title", "content", 1L, "author", LocalDateTime.now(), null, 0L);
+        } finally {
+            connections.release();
+        }
+    }
+
+    /**
+     * Lookups and database queries per iteration, summed over all threads; the query is charged to
+     * the caller that started it, whose counters the load thread inherits.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long lookups;
+        public volatile long queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lookups = 0;
+            queries = 0;
+        }
+    }
+
+    @Benchmark
+    public PostDetail lookup(Counters counters) {
+        long id = ThreadLocalRandom.current().nextInt(HOT_POSTS);
+        counters.lookups++;
+        caller.set(counters);
+        // getPost's @Cacheable is not in play here: every call is a miss
+        return coalesce ? postService.getPost(id) : repository.findDetailById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.secureapi.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.secureapi.SecureAPIApplication;
+import com.example.secureapi.model.RefreshToken;
+import com.example.secureapi.repository.RefreshTokenRepository;
+
+/**
+ * Latency of a refresh-token rotation with {@code storedTokens} other tokens in the table. Each
+ * invocation exchanges the token returned by the previous one, so every call takes the normal
+ * lookup, mark-used and insert path. Like {@code PostBatchBenchmark} it runs against the
+ * configured datasource.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RefreshTokenBenchmark {
+
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"100000"})
+    private int storedTokens;
+
+    private ConfigurableApplicationContext context;
+    private RefreshTokenService refreshTokenService;
+    private RefreshTokenRepository refreshTokenRepository;
+    private String current;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(SecureAPIApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false");
+        refreshTokenService = context.getBean(RefreshTokenService.class);
+        refreshTokenRepository = context.getBean(RefreshTokenRepository.class);
+
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        List<RefreshToken> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < storedTokens; i++) {
+            batch.add(new RefreshToken(RefreshTokenService.hash("seed-" + i), "seed-" + (i / 4), "bench_user",
+                    "USER", expiresAt));
+            if (batch.size() == SEED_BATCH) {
+                refreshTokenRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        refreshTokenRepository.saveAll(batch);
+        current = refreshTokenService.issue("bench_user", "USER").refreshToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        refreshTokenRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public String rotate() {
+        current = refreshTokenService.rotate(current).orElseThrow().refreshToken();
+        return current;
+    }
+}
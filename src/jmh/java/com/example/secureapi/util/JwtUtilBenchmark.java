@@ -0,0 +1,64 @@
+package com.example.secureapi.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Jwts;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(new JwtClaimsCache(10_000), JwtKeyRing.generate(Jwts.SIG.ES256),
+                new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48)));
+        token = jwtUtil.generateToken("bench_user", "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench_user", "USER");
+    }
+
+    @Benchmark
+    public VerifiedClaims parseClaimsUncached() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public VerifiedClaims parseClaimsUncachedContended() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean validateTokenCachedContended() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.secureapi.util;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request cost of the revocation check done by {@code JwtUtil.verify}, with the denylist
+ * holding {@code revoked} entries spread over 48 hourly buckets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TokenDenylistBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000000"})
+    private int revoked;
+
+    private TokenDenylist denylist;
+    private String[] revokedIds;
+    private String[] validIds;
+    private long[] expiries;
+
+    @Setup
+    public void setup() {
+        long now = System.currentTimeMillis();
+        long hour = Duration.ofHours(1).toMillis();
+        denylist = new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        revokedIds = new String[PROBES];
+        validIds = new String[PROBES];
+        expiries = new long[PROBES];
+        for (int i = 0; i < revoked; i++) {
+            String id = tokenId(random);
+            long expiresAt = now + hour + random.nextLong(47 * hour);
+            denylist.revoke(id, expiresAt, now);
+            if (i < PROBES) {
+                revokedIds[i] = id;
+                validIds[i] = tokenId(random);
+                expiries[i] = expiresAt;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isRevokedHit() {
+        int i = ThreadLocalRandom.current().nextInt(PROBES);
+        return denylist.isRevoked(revokedIds[i], expiries[i]);
+    }
+
+    @Benchmark
+    public boolean isRevokedMiss() {
+        int i = ThreadLocalRandom.current().nextInt(PROBES);
+        return denylist.isRevoked(validIds[i], expiries[i]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean isRevokedMissContended() {
+        int i = ThreadLocalRandom.current().nextInt(PROBES);
+        return denylist.isRevoked(validIds[i], expiries[i]);
+    }
+
+    private static String tokenId(ThreadLocalRandom random) {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
+}
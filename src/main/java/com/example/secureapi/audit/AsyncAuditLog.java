@@ -0,0 +1,153 @@
+package com.example.secureapi.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Hands audit events to a dedicated writer thread through an {@link AuditRingBuffer}. Recording
+ * costs one CAS; the writer drains up to {@code batchSize} events at a time and passes each batch
+ * to every sink. When the buffer is full the event is dropped or, with {@link OverflowPolicy#BLOCK},
+ * the caller waits up to {@code blockTimeout} for space and drops it after that.
+ */
+public class AsyncAuditLog implements AuditLog, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAuditLog.class);
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final List<AuditSink> sinks;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTime;
+    private final Timer lag;
+
+    public AsyncAuditLog(List<AuditSink> sinks, int capacity, int batchSize, OverflowPolicy overflowPolicy,
+                         Duration blockTimeout, Duration idleWait, MeterRegistry registry) {
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.sinks = List.copyOf(sinks);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.batchSize = batchSize;
+        this.idleParkNanos = idleWait.toNanos();
+
+        this.written = events(registry, "written");
+        this.dropped = events(registry, "dropped");
+        this.failed = events(registry, "failed");
+        this.flushTime = Timer.builder("audit.flush")
+                .description("Time to write one batch to every sink")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.lag = Timer.builder("audit.lag")
+                .description("Age of the oldest event in a batch when it was written")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Events waiting for the writer")
+                .register(registry);
+
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon().unstarted(this::run);
+        writer.start();
+    }
+
+    @Override
+    public void record(AuditEvent event) {
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK && awaitSpace(event)) {
+            return;
+        }
+        dropped.increment();
+    }
+
+    /**
+     * Stops the writer after it has written every event recorded so far, then closes the sinks.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (AuditSink sink : sinks) {
+            sink.close();
+        }
+    }
+
+    private boolean awaitSpace(AuditEvent event) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (running && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(50_000);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            if (buffer.drainTo(batch, batchSize) > 0) {
+                flush(batch);
+                batch.clear();
+            } else if (stopping) {
+                return;
+            } else {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        lag.record(System.currentTimeMillis() - batch.get(0).timestampMillis(), TimeUnit.MILLISECONDS);
+        boolean ok = true;
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (Exception e) {
+                ok = false;
+                log.error("Failed to write {} audit events to {}", batch.size(), sink.getClass().getSimpleName(), e);
+            }
+        }
+        (ok ? written : failed).increment(batch.size());
+        flushTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Counter events(MeterRegistry registry, String outcome) {
+        return Counter.builder("audit.events")
+                .tag("outcome", outcome)
+                .description("Audit events by outcome")
+                .register(registry);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.secureapi.audit;
+
+/**
+ * One security-relevant action. {@code principal}, {@code clientIp} and {@code detail} may be
+ * {@code null}.
+ */
+public record AuditEvent(long timestampMillis, AuditEventType type, String principal, String clientIp, String detail) {
+}
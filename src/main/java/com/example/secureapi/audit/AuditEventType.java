@@ -0,0 +1,9 @@
+package com.example.secureapi.audit;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    RATE_LIMITED,
+    POST_DELETED,
+    ACCOUNT_UPDATED
+}
@@ -0,0 +1,156 @@
+package com.example.secureapi.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Appends audit events as JSON lines to memory-mapped segment files of a fixed size. A full
+ * segment is truncated to its written length and a new one is started; only the newest
+ * {@code maxSegments} are kept. Segments are never reopened, so a segment left behind by a crash
+ * may end in zero padding, which readers should treat as end of file.
+ */
+public class AuditFileWriter implements AuditSink {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+    private static final int MAX_FIELD_LENGTH = 1024;
+    // three escaped fields of at most six bytes per char, plus timestamp, type and keys
+    private static final int MAX_LINE_LENGTH = 3 * MAX_FIELD_LENGTH * 6 + 256;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean forceOnFlush;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int flushedPosition;
+    private long segmentSequence;
+
+    public AuditFileWriter(Path directory, int segmentSize, int maxSegments, boolean forceOnFlush) throws IOException {
+        if (segmentSize < MAX_LINE_LENGTH) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.forceOnFlush = forceOnFlush;
+        openSegment();
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        for (AuditEvent event : batch) {
+            byte[] encoded = encode(event);
+            if (encoded.length > buffer.remaining()) {
+                rotate();
+            }
+            buffer.put(encoded);
+        }
+        flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            closeSegment();
+        }
+    }
+
+    private void flush() {
+        int position = buffer.position();
+        if (forceOnFlush && position > flushedPosition) {
+            buffer.force(flushedPosition, position - flushedPosition);
+        }
+        flushedPosition = position;
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        openSegment();
+        deleteOldSegments();
+    }
+
+    private void openSegment() throws IOException {
+        Path segment = directory.resolve(String.format("%s%013d-%04d%s",
+                PREFIX, System.currentTimeMillis(), segmentSequence++ % 10_000, SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        flushedPosition = 0;
+    }
+
+    private void closeSegment() throws IOException {
+        int length = buffer.position();
+        buffer.force(0, length);
+        buffer = null;
+        try {
+            // drop the unused, zero-filled tail; the mapping is never touched again
+            channel.truncate(length);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(AuditFileWriter::isSegment).sorted().toList();
+        }
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private byte[] encode(AuditEvent event) {
+        line.setLength(0);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.timestampMillis()))
+                .append("\",\"type\":\"").append(event.type().name()).append('"');
+        field("principal", event.principal());
+        field("ip", event.clientIp());
+        field("detail", event.detail());
+        line.append("}\n");
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void field(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        int length = Math.min(value.length(), MAX_FIELD_LENGTH);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.secureapi.audit;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Records security events. Implementations must not block the caller on I/O.
+ */
+@FunctionalInterface
+public interface AuditLog {
+
+    AuditLog NOOP = event -> { };
+
+    void record(AuditEvent event);
+
+    default void record(AuditEventType type, String principal, String clientIp, String detail) {
+        record(new AuditEvent(System.currentTimeMillis(), type, principal, clientIp, detail));
+    }
+
+    /**
+     * Records an event for the current request, taking the client address from the request
+     * bound to this thread, if any.
+     */
+    default void record(AuditEventType type, String principal, String detail) {
+        record(type, principal, currentClientIp(), detail);
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest().getRemoteAddr() : null;
+    }
+}
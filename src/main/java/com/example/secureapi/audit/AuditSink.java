@@ -0,0 +1,18 @@
+package com.example.secureapi.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for batches of audit events. Called from the audit writer thread only.
+ */
+@FunctionalInterface
+public interface AuditSink extends Closeable {
+
+    void write(List<AuditEvent> batch) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
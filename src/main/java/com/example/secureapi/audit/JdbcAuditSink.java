@@ -0,0 +1,48 @@
+package com.example.secureapi.audit;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Inserts each batch into {@code audit_events} with a single JDBC batch.
+ */
+public class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT =
+            "insert into audit_events (occurred_at, type, principal, client_ip, detail) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                AuditEvent event = batch.get(i);
+                statement.setTimestamp(1, new Timestamp(event.timestampMillis()));
+                statement.setString(2, event.type().name());
+                statement.setString(3, truncate(event.principal(), 255));
+                statement.setString(4, truncate(event.clientIp(), 45));
+                statement.setString(5, truncate(event.detail(), 1024));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.secureapi.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A stored {@code 200} response: its headers and serialized body, plus the ticker times (nanos) it
+ * stays fresh until and may be served stale until while one request refreshes it. Large bodies live
+ * in a direct buffer, outside the Java heap.
+ */
+public final class CachedResponse {
+
+    // rough per-entry cost of the key, headers and bookkeeping, so tiny bodies are not weighed as free
+    private static final int OVERHEAD_BYTES = 512;
+
+    private final HttpHeaders headers;
+    private final byte[] heapBody;
+    private final ByteBuffer offHeapBody;
+    private final long storedAt;
+    private final long freshUntil;
+    private final long staleUntil;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    CachedResponse(HttpHeaders headers, byte[] body, int offHeapThreshold, long storedAt, long freshUntil,
+                   long staleUntil) {
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        if (body.length >= offHeapThreshold) {
+            this.heapBody = null;
+            this.offHeapBody = ByteBuffer.allocateDirect(body.length).put(body).flip().asReadOnlyBuffer();
+        } else {
+            this.heapBody = body;
+            this.offHeapBody = null;
+        }
+        this.storedAt = storedAt;
+        this.freshUntil = freshUntil;
+        this.staleUntil = staleUntil;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public int length() {
+        return heapBody != null ? heapBody.length : offHeapBody.remaining();
+    }
+
+    public boolean isOffHeap() {
+        return offHeapBody != null;
+    }
+
+    public boolean isFresh(long now) {
+        return now - freshUntil < 0;
+    }
+
+    public long storedAt() {
+        return storedAt;
+    }
+
+    long staleUntil() {
+        return staleUntil;
+    }
+
+    int weight() {
+        return length() + OVERHEAD_BYTES;
+    }
+
+    /**
+     * Claims the one refresh of a stale entry; false when another request already has it.
+     */
+    boolean startRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    void endRevalidation() {
+        revalidating.set(false);
+    }
+
+    public void writeBody(OutputStream out) throws IOException {
+        if (heapBody != null) {
+            out.write(heapBody);
+            return;
+        }
+        ByteBuffer view = offHeapBody.duplicate();
+        byte[] chunk = new byte[Math.min(view.remaining(), 8192)];
+        while (view.hasRemaining()) {
+            int length = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.secureapi.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Records the status, headers and body (up to a limit) that the rest of the chain produces. In
+ * pass-through mode everything also goes to the client as usual; detached, nothing reaches the
+ * wrapped response, which is how a stale entry is refreshed after the client has been answered.
+ * <p>
+ * Only headers set through this wrapper are recorded, so those added by earlier filters (security
+ * headers, rate-limit headers) are never stored.
+ */
+final class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final boolean detached;
+    private final int limit;
+    private final HttpHeaders headers = new HttpHeaders();
+    private ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private int status = SC_OK;
+    private String characterEncoding;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CapturingResponseWrapper(HttpServletResponse response, boolean detached, int limit) {
+        super(response);
+        this.detached = detached;
+        this.limit = limit;
+    }
+
+    /**
+     * The captured status, headers and body once the chain has returned; {@code null} body when it
+     * outgrew the limit.
+     */
+    byte[] finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body == null ? null : body.toByteArray();
+    }
+
+    HttpHeaders capturedHeaders() {
+        return headers;
+    }
+
+    /**
+     * Stops buffering, e.g. once the response turned out to be streamed asynchronously.
+     */
+    void abandon() {
+        body = null;
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        status = sc;
+        if (!detached) {
+            super.setStatus(sc);
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        status = sc;
+        abandon();
+        if (!detached) {
+            super.sendError(sc, msg);
+        }
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        status = SC_FOUND;
+        abandon();
+        if (!detached) {
+            super.sendRedirect(location);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.set(name, value);
+        if (!detached) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.add(name, value);
+        if (!detached) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        headers.setDate(name, date);
+        if (!detached) {
+            super.setDateHeader(name, date);
+        }
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        HttpHeaders formatted = new HttpHeaders();
+        formatted.setDate(name, date);
+        headers.add(name, formatted.getFirst(name));
+        if (!detached) {
+            super.addDateHeader(name, date);
+        }
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name) || (!detached && super.containsHeader(name));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        String value = headers.getFirst(name);
+        return value != null || detached ? value : super.getHeader(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values != null || detached ? (values != null ? values : List.of()) : super.getHeaders(name);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return detached ? headers.keySet() : super.getHeaderNames();
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (type == null) {
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+        } else {
+            headers.set(HttpHeaders.CONTENT_TYPE, type);
+        }
+        if (!detached) {
+            super.setContentType(type);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return detached ? headers.getFirst(HttpHeaders.CONTENT_TYPE) : super.getContentType();
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        characterEncoding = charset;
+        if (!detached) {
+            super.setCharacterEncoding(charset);
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        if (!detached) {
+            return super.getCharacterEncoding();
+        }
+        if (characterEncoding != null) {
+            return characterEncoding;
+        }
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        Charset charset = contentType == null ? null : MediaType.parseMediaType(contentType).getCharset();
+        return (charset != null ? charset : StandardCharsets.ISO_8859_1).name();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        if (!detached) {
+            super.setContentLength(len);
+        }
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!detached) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CapturingOutputStream(detached ? null : super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!detached) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return !detached && super.isCommitted();
+    }
+
+    @Override
+    public void reset() {
+        headers.clear();
+        status = SC_OK;
+        resetBuffer();
+        if (!detached) {
+            super.reset();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (body != null) {
+            body.reset();
+        }
+        if (!detached) {
+            super.resetBuffer();
+        }
+    }
+
+    private final class CapturingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        CapturingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (delegate != null) {
+                delegate.write(b);
+            }
+            capture(1);
+            if (body != null) {
+                body.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (delegate != null) {
+                delegate.write(b, off, len);
+            }
+            capture(len);
+            if (body != null) {
+                body.write(b, off, len);
+            }
+        }
+
+        private void capture(int len) {
+            if (body != null && body.size() + len > limit) {
+                abandon();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (delegate != null) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate == null || delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            if (delegate != null) {
+                delegate.setWriteListener(listener);
+            }
+        }
+    }
+}
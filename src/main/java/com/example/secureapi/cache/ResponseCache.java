@@ -0,0 +1,194 @@
+package com.example.secureapi.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Serialized GET responses keyed by path, query, caller role and {@code Accept}, bounded by their
+ * total size in bytes. Each entry expires once its stale-while-revalidate window has passed.
+ * <p>
+ * Concurrent misses for one key are collapsed: the first request to miss becomes the leader and
+ * fetches, the others wait for what it stores. A key whose response could not be stored is
+ * remembered for a while ("hit-for-pass"), so requests for it go straight through instead of
+ * queueing behind each other. Entries are local to this node; a write on another node is only
+ * seen once the entry expires.
+ */
+public class ResponseCache implements MeterBinder {
+
+    public record Key(String path, String query, String role, String accept) {
+    }
+
+    private final Cache<Key, CachedResponse> entries;
+    private final Cache<Key, Boolean> uncacheable;
+    private final ConcurrentMap<Key, CompletableFuture<CachedResponse>> fetches = new ConcurrentHashMap<>();
+    private final Ticker ticker;
+    private final int offHeapThreshold;
+    private final int maxEntryBytes;
+    private final long maxTtlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseCache(long maxBytes, int maxEntryBytes, int offHeapThreshold, Duration maxTtl, Duration passTtl,
+                         Ticker ticker) {
+        this.ticker = ticker;
+        this.offHeapThreshold = offHeapThreshold;
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, CachedResponse response) -> response.weight())
+                .expireAfter(new Expiry<Key, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(Key key, CachedResponse response, long currentTime) {
+                        return Math.max(response.staleUntil() - currentTime, 0);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.uncacheable = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(passTtl)
+                .ticker(ticker)
+                .build();
+    }
+
+    public long now() {
+        return ticker.read();
+    }
+
+    public int maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public CachedResponse get(Key key) {
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * Stores a response that stays fresh for {@code freshFor} and may then be served stale for
+     * {@code staleFor} more, both capped at the configured maximum TTL.
+     */
+    public CachedResponse put(Key key, HttpHeaders headers, byte[] body, Duration freshFor,
+                              Duration staleFor) {
+        long now = ticker.read();
+        long fresh = Math.min(freshFor.toNanos(), maxTtlNanos);
+        long stale = Math.min(staleFor.toNanos(), maxTtlNanos);
+        CachedResponse response = new CachedResponse(headers, body, offHeapThreshold, now, now + fresh,
+                now + fresh + stale);
+        entries.put(key, response);
+        return response;
+    }
+
+    public void invalidate(Key key) {
+        entries.invalidate(key);
+    }
+
+    /**
+     * Drops every entry for {@code path}, the paths below it and the collections above it, after a
+     * write to {@code path}.
+     */
+    public void invalidatePath(String path) {
+        String target = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        entries.asMap().keySet().removeIf(key -> within(key.path(), target) || within(target, key.path()));
+        uncacheable.asMap().keySet().removeIf(key -> within(key.path(), target));
+    }
+
+    // path is base or below it, on segment boundaries
+    private static boolean within(String path, String base) {
+        return path.startsWith(base) && (path.length() == base.length() || path.charAt(base.length()) == '/'
+                || base.endsWith("/"));
+    }
+
+    public void markUncacheable(Key key) {
+        uncacheable.put(key, Boolean.TRUE);
+    }
+
+    public boolean isUncacheable(Key key) {
+        return uncacheable.getIfPresent(key) != null;
+    }
+
+    /**
+     * Starts a fetch for {@code key}, returning {@code null} when the caller is now the leader (and
+     * must call {@link #endFetch}), or the leader's pending result otherwise.
+     */
+    public CompletableFuture<CachedResponse> beginFetch(Key key) {
+        CompletableFuture<CachedResponse> fetch = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> existing = fetches.putIfAbsent(key, fetch);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Hands the leader's result, or {@code null} when the response could not be stored, to its waiters.
+     */
+    public void endFetch(Key key, CachedResponse stored) {
+        CompletableFuture<CachedResponse> fetch = fetches.remove(key);
+        if (fetch != null) {
+            fetch.complete(stored);
+        }
+    }
+
+    public void recordHit(boolean stale) {
+        (stale ? staleHits : hits).increment();
+    }
+
+    public long estimatedSize() {
+        return entries.estimatedSize();
+    }
+
+    public long weightedSize() {
+        return entries.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("http.response.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("http.response.cache.requests", staleHits, LongAdder::sum)
+                .tag("result", "stale").register(registry);
+        FunctionCounter.builder("http.response.cache.requests", coalesced, LongAdder::sum)
+                .tag("result", "coalesced").description("Misses that waited for another request's fetch")
+                .register(registry);
+        FunctionCounter.builder("http.response.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("http.response.cache.evictions", entries, cache -> cache.stats().evictionCount())
+                .register(registry);
+        Gauge.builder("http.response.cache.entries", this, ResponseCache::estimatedSize).register(registry);
+        Gauge.builder("http.response.cache.size", this, ResponseCache::weightedSize).baseUnit("bytes")
+                .register(registry);
+    }
+}
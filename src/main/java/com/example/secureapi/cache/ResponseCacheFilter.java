@@ -0,0 +1,299 @@
+package com.example.secureapi.cache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Shared HTTP cache for GETs, run inside the security chain after authorization so a cached response
+ * is only ever served to a caller allowed to make the request. Entries vary on path, query, the
+ * caller's roles and {@code Accept}.
+ * <p>
+ * Only {@code 200} responses that opt in with {@code s-maxage} (or {@code max-age}) and are not
+ * {@code private}, {@code no-store} or {@code no-cache} are stored. A response to a request carrying
+ * credentials also needs {@code s-maxage} or {@code public} (RFC 9111, section 3.5): entries are
+ * shared by every caller with the same roles, so a plain {@code max-age} answer may be meant for that
+ * caller alone. Entries do not vary on {@code Accept-Encoding}, so a body with a
+ * {@code Content-Encoding} (a proxied upstream's gzip, say) is never stored.
+ * {@code stale-while-revalidate} lets an expired entry be served while the request that found it
+ * refreshes it after answering.
+ * Requests with {@code Cache-Control: no-cache} skip the lookup and {@code no-store} skips the cache
+ * altogether. A successful write (POST, PUT, PATCH, DELETE) drops the entries for its path, the
+ * paths below it and the collections above it.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+    private static final Set<String> VARY_ALLOWED = Set.of("accept", "accept-encoding");
+    private static final Set<String> NOT_STORED = Set.of("content-length", "transfer-encoding", "connection",
+            "keep-alive", "date", "age", CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+
+    private final ResponseCache cache;
+    private final Duration collapseTimeout;
+
+    public ResponseCacheFilter(ResponseCache cache, Duration collapseTimeout) {
+        this.cache = cache;
+        this.collapseTimeout = collapseTimeout;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        if (!"GET".equals(method)) {
+            chain.doFilter(request, response);
+            if (!"HEAD".equals(method) && !"OPTIONS".equals(method) && !"TRACE".equals(method)
+                    && response.getStatus() < 400) {
+                cache.invalidatePath(path(request));
+            }
+            return;
+        }
+        Map<String, String> requestDirectives = directives(Collections.list(request.getHeaders(HttpHeaders.CACHE_CONTROL)));
+        if (requestDirectives.containsKey("no-store") || request.getHeader(HttpHeaders.RANGE) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ResponseCache.Key key = key(request);
+        if (!requestDirectives.containsKey("no-cache") && !"0".equals(requestDirectives.get("max-age"))) {
+            CachedResponse cached = cache.get(key);
+            if (cached != null && cached.isFresh(cache.now())) {
+                cache.recordHit(false);
+                serve(cached, "HIT", request, response);
+                return;
+            }
+            if (cached != null) {
+                // still inside stale-while-revalidate, or it would have expired
+                cache.recordHit(true);
+                serve(cached, "STALE", request, response);
+                if (cached.startRevalidation()) {
+                    // the client has its full answer; refresh on this thread
+                    response.flushBuffer();
+                    revalidate(key, cached, request, response, chain);
+                }
+                return;
+            }
+        }
+        if (cache.isUncacheable(key)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CompletableFuture<CachedResponse> leader = cache.beginFetch(key);
+        if (leader != null) {
+            CachedResponse shared = await(leader);
+            if (shared != null) {
+                serve(shared, "HIT", request, response);
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        CachedResponse stored = null;
+        try {
+            response.setHeader(CACHE_STATUS_HEADER, "MISS");
+            CapturingResponseWrapper capture = new CapturingResponseWrapper(response, false, cache.maxEntryBytes());
+            chain.doFilter(request, capture);
+            if (request.isAsyncStarted()) {
+                capture.abandon();
+            }
+            stored = store(key, capture, hasCredentials(request));
+        } finally {
+            cache.endFetch(key, stored);
+        }
+    }
+
+    private CachedResponse await(CompletableFuture<CachedResponse> fetch) {
+        try {
+            return fetch.get(collapseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private void revalidate(ResponseCache.Key key, CachedResponse stale, HttpServletRequest request,
+                            HttpServletResponse response, FilterChain chain) {
+        try {
+            CapturingResponseWrapper capture = new CapturingResponseWrapper(response, true, cache.maxEntryBytes());
+            chain.doFilter(new UnconditionalRequest(request), capture);
+            if (store(key, capture, hasCredentials(request)) == null) {
+                cache.invalidate(key);
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            log.debug("Refreshing {} failed: {}", key.path(), e.toString());
+        } finally {
+            stale.endRevalidation();
+        }
+    }
+
+    private CachedResponse store(ResponseCache.Key key, CapturingResponseWrapper capture, boolean credentials) {
+        byte[] body = capture.finish();
+        if (capture.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+            // the client's own validators matched, which says nothing about whether the full response is storable
+            return null;
+        }
+        HttpHeaders headers = capture.capturedHeaders();
+        Map<String, String> directives = directives(headers.get(HttpHeaders.CACHE_CONTROL));
+        Duration freshFor = seconds(directives.getOrDefault("s-maxage", directives.get("max-age")));
+        if (body == null || capture.getStatus() != HttpServletResponse.SC_OK || freshFor == null
+                || credentials && !directives.containsKey("s-maxage") && !directives.containsKey("public")
+                || directives.containsKey("private") || directives.containsKey("no-store")
+                || directives.containsKey("no-cache") || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || isEncoded(headers)
+                || !headers.getVary().stream().allMatch(name -> VARY_ALLOWED.contains(name.toLowerCase(Locale.ROOT)))) {
+            cache.markUncacheable(key);
+            return null;
+        }
+        HttpHeaders stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!NOT_STORED.contains(name.toLowerCase(Locale.ROOT))) {
+                stored.addAll(name, values);
+            }
+        });
+        Duration staleFor = seconds(directives.get("stale-while-revalidate"));
+        return cache.put(key, stored, body, freshFor, staleFor != null ? staleFor : Duration.ZERO);
+    }
+
+    private static boolean isEncoded(HttpHeaders headers) {
+        String coding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        return coding != null && !coding.isBlank() && !"identity".equalsIgnoreCase(coding.trim());
+    }
+
+    private void serve(CachedResponse cached, String outcome, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        cached.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(CACHE_STATUS_HEADER, outcome);
+        response.setHeader(HttpHeaders.AGE,
+                Long.toString(TimeUnit.NANOSECONDS.toSeconds(Math.max(cache.now() - cached.storedAt(), 0))));
+        if (new ServletWebRequest(request, response)
+                .checkNotModified(cached.headers().getETag(), cached.headers().getLastModified())) {
+            return;
+        }
+        response.setContentLength(cached.length());
+        cached.writeBody(response.getOutputStream());
+    }
+
+    private static boolean hasCredentials(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return request.getHeader(HttpHeaders.AUTHORIZATION) != null
+                || authentication != null && authentication.isAuthenticated() && !TRUST_RESOLVER.isAnonymous(authentication);
+    }
+
+    private static ResponseCache.Key key(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String roles = authentication == null || !authentication.isAuthenticated()
+                ? ""
+                : authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .sorted()
+                        .collect(Collectors.joining(","));
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return new ResponseCache.Key(path(request), request.getQueryString(), roles, accept != null ? accept : "");
+    }
+
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+
+    static Map<String, String> directives(List<String> headerValues) {
+        if (headerValues == null || headerValues.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> directives = new HashMap<>();
+        for (String value : headerValues) {
+            for (String directive : value.split(",")) {
+                String trimmed = directive.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                int equals = trimmed.indexOf('=');
+                String name = (equals < 0 ? trimmed : trimmed.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+                String argument = equals < 0 ? "" : trimmed.substring(equals + 1).trim().replace("\"", "");
+                directives.putIfAbsent(name, argument);
+            }
+        }
+        return directives;
+    }
+
+    private static Duration seconds(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hides the client's validators so a refresh gets the full representation, not a 304.
+     */
+    private static final class UnconditionalRequest extends HttpServletRequestWrapper {
+
+        private static final Set<String> HIDDEN = Set.of("if-none-match", "if-modified-since", "if-match",
+                "if-unmodified-since", "if-range");
+
+        UnconditionalRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HIDDEN.contains(name.toLowerCase(Locale.ROOT)) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return HIDDEN.contains(name.toLowerCase(Locale.ROOT)) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            return HIDDEN.contains(name.toLowerCase(Locale.ROOT)) ? -1 : super.getDateHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !HIDDEN.contains(name.toLowerCase(Locale.ROOT)))
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.secureapi.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Bounded in-process cache in front of a shared (Redis) cache. Local entries are keyed by the
+ * string form of the cache key so that invalidations received from other nodes can be applied
+ * directly; every local write or eviction is published through {@code invalidationPublisher}.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final CaffeineCache local;
+    private final Cache remote;
+    private final Consumer<String> invalidationPublisher;
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public TwoLevelCache(String name, CaffeineCache local, Cache remote, Consumer<String> invalidationPublisher) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper value = local.get(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        value = remote.get(key);
+        if (value != null) {
+            remoteHits.increment();
+            local.put(localKey, value.get());
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object stored = value != null ? value.get() : null;
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = local.get(localKey(key), () -> {
+            loaded[0] = true;
+            ValueWrapper remoteValue = remote.get(key);
+            if (remoteValue != null) {
+                remoteHits.increment();
+                return (T) remoteValue.get();
+            }
+            misses.increment();
+            T loadedValue = valueLoader.call();
+            remote.put(key, loadedValue);
+            puts.increment();
+            return loadedValue;
+        });
+        if (!loaded[0]) {
+            localHits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        remote.put(key, value);
+        local.put(localKey, value);
+        puts.increment();
+        invalidationPublisher.accept(localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remote.evict(key);
+        local.evict(localKey);
+        invalidationPublisher.accept(localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.clear();
+        invalidationPublisher.accept(null);
+    }
+
+    /**
+     * Applies an invalidation published by another node; {@code null} clears the local tier.
+     */
+    public void invalidateLocal(String localKey) {
+        if (localKey == null) {
+            local.clear();
+        } else {
+            local.evict(localKey);
+        }
+    }
+
+    public CaffeineCache getLocalCache() {
+        return local;
+    }
+
+    public long localHitCount() {
+        return localHits.sum();
+    }
+
+    public long remoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.secureapi.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Holds back the first {@code minSize} bytes of the body, then decides: bodies that reach that size
+ * with a compressible content type go out through the encoder, the rest unchanged. A declared
+ * {@code Content-Length} is kept until then, since it is only true of the uncompressed body.
+ * <p>
+ * Flushes below {@code minSize} are held back too, since Spring MVC flushes after every body,
+ * except for streamed content types, where each flush is meant to reach the client.
+ * <p>
+ * Once as many bytes as the declared {@code Content-Length} have been written the body is complete
+ * (Servlet 6.0, section 5.6), so it is finished and the response closed right away: a filter that
+ * keeps working after flushing, like a stale cache hit refreshing its entry, does not hold a
+ * compressed or held-back body from the client.
+ */
+final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final List<MediaType> STREAMED_TYPES = List.of(MediaType.APPLICATION_NDJSON,
+            MediaType.TEXT_EVENT_STREAM);
+
+    private final ContentEncoding encoding;
+    private final int level;
+    private final int minSize;
+    private final List<MediaType> mimeTypes;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    // null until decided
+    private OutputStream target;
+    private boolean compressing;
+    // sendError/sendRedirect: the container writes the body
+    private boolean bypassed;
+    private long contentLength = -1;
+    // uncompressed body bytes accepted so far
+    private long written;
+    private boolean finished;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponseWrapper(HttpServletResponse response, ContentEncoding encoding, int level, int minSize,
+                               List<MediaType> mimeTypes) {
+        super(response);
+        this.encoding = encoding;
+        this.level = level;
+        this.minSize = minSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    /**
+     * Writes out whatever is still held back and ends the compressed stream, once the body is
+     * complete.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (bypassed || finished) {
+            return;
+        }
+        finished = true;
+        if (target == null) {
+            decide(true);
+        }
+        if (compressing) {
+            target.close();
+        }
+    }
+
+    boolean isCompressing() {
+        return compressing;
+    }
+
+    private void decide(boolean complete) throws IOException {
+        compressing = shouldCompress(complete);
+        ServletOutputStream out = super.getOutputStream();
+        if (compressing) {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token());
+            varyOnAcceptEncoding();
+            String eTag = super.getHeader(HttpHeaders.ETAG);
+            if (eTag != null) {
+                super.setHeader(HttpHeaders.ETAG, encoding.eTag(eTag));
+            }
+            target = encoding.wrap(out, level);
+        } else {
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            } else if (complete && buffer.size() > 0 && !super.isCommitted()) {
+                super.setContentLength(buffer.size());
+            }
+            target = out;
+        }
+        buffer.writeTo(target);
+        buffer = null;
+    }
+
+    private boolean shouldCompress(boolean complete) {
+        int status = getStatus();
+        if (super.isCommitted() || status < 200 || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED
+                || super.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null || !compressible(MediaType.parseMediaType(contentType))) {
+            return false;
+        }
+        long size = complete ? buffer.size() : contentLength;
+        return size < 0 || size >= minSize;
+    }
+
+    private boolean compressible(MediaType contentType) {
+        for (MediaType mimeType : mimeTypes) {
+            if (mimeType.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void varyOnAcceptEncoding() {
+        for (String vary : super.getHeaders(HttpHeaders.VARY)) {
+            for (String token : vary.split(",")) {
+                String name = token.trim();
+                if (name.equals("*") || name.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) {
+                    return;
+                }
+            }
+        }
+        super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        bypassed = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        bypassed = true;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        bypassed = true;
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (target == null && !bypassed) {
+            contentLength = len;
+        } else if (!compressing) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (finished) {
+            return;
+        }
+        if (bypassed) {
+            super.flushBuffer();
+        } else if (target != null || streamed()) {
+            getOutputStream().flush();
+            super.flushBuffer();
+        }
+    }
+
+    private boolean streamed() {
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return STREAMED_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mediaType));
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        contentLength = -1;
+        resetBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (buffer != null) {
+            buffer.reset();
+            written = 0;
+        }
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        CompressingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (bypassed) {
+                delegate.write(b, off, len);
+                return;
+            }
+            if (finished) {
+                // past the declared length
+                return;
+            }
+            if (target == null && buffer.size() + len < minSize) {
+                buffer.write(b, off, len);
+            } else {
+                if (target == null) {
+                    decide(false);
+                }
+                target.write(b, off, len);
+            }
+            written += len;
+            if (contentLength >= 0 && written >= contentLength) {
+                finish();
+                delegate.close();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (bypassed) {
+                delegate.flush();
+                return;
+            }
+            if (target == null) {
+                if (!streamed()) {
+                    return;
+                }
+                decide(false);
+            }
+            target.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.secureapi.compression;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compresses response bodies with the best coding the client accepts (brotli, then gzip) once they
+ * reach {@code minSize} bytes and have one of the configured content types. Smaller bodies go out
+ * as they are with a {@code Content-Length}, since compressing them costs more CPU than it saves
+ * bytes. Responses that already carry a {@code Content-Encoding}, such as proxied ones, are left
+ * alone.
+ * <p>
+ * It sits in front of the security chain, so it also covers cached responses; the response cache
+ * stores bodies uncompressed and they are compressed per request. A strong {@code ETag} promises
+ * byte-identical bodies, so a compressed response gets the coding appended to it ({@code "3-gzip"},
+ * {@code "3-br"}) and intermediaries never mix up the codings. The suffix is stripped again from
+ * incoming {@code If-Match} and {@code If-None-Match}, so everything behind this filter still
+ * compares against the post version alone.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final List<ContentEncoding> encodings;
+    private final int brotliQuality;
+    private final int gzipLevel;
+    private final int minSize;
+    private final List<MediaType> mimeTypes;
+
+    public CompressionFilter(List<ContentEncoding> encodings, int brotliQuality, int gzipLevel, int minSize,
+                             List<MediaType> mimeTypes) {
+        this.encodings = encodings.stream().filter(ContentEncoding::isAvailable).toList();
+        this.brotliQuality = brotliQuality;
+        this.gzipLevel = gzipLevel;
+        this.minSize = minSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    /**
+     * The codings actually offered, i.e. those configured whose encoder could be loaded.
+     */
+    public List<ContentEncoding> encodings() {
+        return encodings;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // streamed bodies are finished on the dispatch that completes them
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            request = new IdentityValidatorsRequest(request);
+        }
+        CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        if (wrapper == null) {
+            ContentEncoding encoding = "HEAD".equals(request.getMethod())
+                    ? null
+                    : ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), encodings);
+            if (encoding == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            wrapper = new CompressingResponseWrapper(response, encoding,
+                    encoding == ContentEncoding.BROTLI ? brotliQuality : gzipLevel, minSize, mimeTypes);
+            chain.doFilter(request, wrapper);
+        } else {
+            chain.doFilter(request, response);
+        }
+        if (!request.isAsyncStarted()) {
+            wrapper.finish();
+        }
+    }
+
+    /**
+     * Presents {@code If-Match} and {@code If-None-Match} with the coding suffixes removed.
+     */
+    private static final class IdentityValidatorsRequest extends HttpServletRequestWrapper {
+
+        IdentityValidatorsRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return value != null && isValidator(name) ? ContentEncoding.stripETagSuffixes(value) : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!isValidator(name)) {
+                return super.getHeaders(name);
+            }
+            return Collections.enumeration(Collections.list(super.getHeaders(name)).stream()
+                    .map(ContentEncoding::stripETagSuffixes)
+                    .toList());
+        }
+
+        private static boolean isValidator(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MATCH.equalsIgnoreCase(name);
+        }
+    }
+}
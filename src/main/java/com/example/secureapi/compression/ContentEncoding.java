@@ -0,0 +1,135 @@
+package com.example.secureapi.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+/**
+ * The content codings responses can be compressed with, in order of preference.
+ */
+public enum ContentEncoding {
+
+    /**
+     * Brotli through the native brotli4j encoder; {@code level} is the quality, 0-11.
+     */
+    BROTLI("br") {
+        @Override
+        public OutputStream wrap(OutputStream out, int level) throws IOException {
+            return new BrotliOutputStream(out, new Encoder.Parameters().setQuality(level));
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return Brotli4jLoader.isAvailable();
+        }
+    },
+
+    /**
+     * gzip; {@code level} is the deflate level, 1-9. Flushes push out everything written so far, so
+     * streamed responses are not held back.
+     */
+    GZIP("gzip") {
+        @Override
+        public OutputStream wrap(OutputStream out, int level) throws IOException {
+            return new GZIPOutputStream(out, 8192, true) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+    };
+
+    // the suffixes eTag() adds, at the end of a quoted tag
+    private static final Pattern CODING_SUFFIX = Pattern.compile("-(?:br|gzip)\"");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * The value for {@code Content-Encoding}.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * The entity tag of this coding of the representation tagged {@code eTag}: a strong tag names the
+     * exact bytes, so each coding needs its own, e.g. {@code "3-gzip"}. Weak tags are returned as is.
+     */
+    public String eTag(String eTag) {
+        if (eTag.startsWith("W/") || eTag.length() < 2 || !eTag.endsWith("\"")) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + "-" + token + "\"";
+    }
+
+    /**
+     * Drops the suffixes {@link #eTag} adds from the tags in an {@code If-Match} or
+     * {@code If-None-Match} value, so they compare equal to the uncompressed representation's tag.
+     */
+    public static String stripETagSuffixes(String header) {
+        return CODING_SUFFIX.matcher(header).replaceAll("\"");
+    }
+
+    public abstract OutputStream wrap(OutputStream out, int level) throws IOException;
+
+    public abstract boolean isAvailable();
+
+    /**
+     * The coding from {@code offered} the client weights highest in its {@code Accept-Encoding}, the
+     * earlier one on a tie; {@code null} for none, including when the header is missing.
+     */
+    public static ContentEncoding negotiate(String acceptEncoding, List<ContentEncoding> offered) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    quality = quality(param.substring(2));
+                }
+            }
+            weights.put(params[0].trim().toLowerCase(Locale.ROOT), quality);
+        }
+        double wildcard = weights.getOrDefault("*", 0.0);
+        ContentEncoding best = null;
+        double bestWeight = 0;
+        for (ContentEncoding encoding : offered) {
+            double weight = weights.getOrDefault(encoding.token, wildcard);
+            if (weight > bestWeight) {
+                best = encoding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
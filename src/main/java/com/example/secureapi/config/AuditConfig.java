@@ -0,0 +1,76 @@
+package com.example.secureapi.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.secureapi.audit.AsyncAuditLog;
+import com.example.secureapi.audit.AuditFileWriter;
+import com.example.secureapi.audit.AuditLog;
+import com.example.secureapi.audit.AuditSink;
+import com.example.secureapi.audit.JdbcAuditSink;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class AuditConfig {
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${audit.overflow:DROP}")
+    private AsyncAuditLog.OverflowPolicy overflowPolicy;
+
+    @Value("${audit.block-timeout:5ms}")
+    private Duration blockTimeout;
+
+    @Value("${audit.idle-wait:10ms}")
+    private Duration idleWait;
+
+    @Value("${audit.file.enabled:true}")
+    private boolean fileEnabled;
+
+    @Value("${audit.file.directory:logs/audit}")
+    private Path fileDirectory;
+
+    @Value("${audit.file.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${audit.file.max-segments:16}")
+    private int maxSegments;
+
+    @Value("${audit.file.force:false}")
+    private boolean force;
+
+    @Value("${audit.database.enabled:false}")
+    private boolean databaseEnabled;
+
+    @Bean
+    public AuditLog auditLog(JdbcTemplate jdbcTemplate, MeterRegistry registry) throws IOException {
+        if (!enabled) {
+            return AuditLog.NOOP;
+        }
+        List<AuditSink> sinks = new ArrayList<>();
+        if (fileEnabled) {
+            sinks.add(new AuditFileWriter(fileDirectory, Math.toIntExact(segmentSize.toBytes()), maxSegments, force));
+        }
+        if (databaseEnabled) {
+            sinks.add(new JdbcAuditSink(jdbcTemplate));
+        }
+        return new AsyncAuditLog(sinks, bufferCapacity, batchSize, overflowPolicy, blockTimeout, idleWait, registry);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.secureapi.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import com.example.secureapi.cache.TwoLevelCache;
+import com.example.secureapi.cache.TwoLevelCacheMetrics;
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.dto.PostPage;
+import com.example.secureapi.dto.PostSummary;
+import com.example.secureapi.dto.PostVersion;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Post read caches: a bounded Caffeine tier, optionally backed by Redis
+ * ({@code cache.redis.enabled=true}) with local invalidations fanned out over pub/sub. Each Redis
+ * cache is serialized as the one DTO type it holds, so nothing written to Redis can choose the
+ * class it is read back as.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String POST_CACHE = "post";
+    public static final String POST_LIST_CACHE = "posts";
+    public static final String POST_DETAIL_LIST_CACHE = "post-details";
+    public static final String POST_VERSION_CACHE = "post-version";
+
+    private static final String INVALIDATION_CHANNEL = "cache-invalidation";
+    private static final char SEPARATOR = '|';
+    // one virtual thread per async load, shared by every cache; unlike an ExecutorService nothing needs closing
+    private static final Executor VIRTUAL_THREAD_LOADER = task -> Thread.ofVirtual().name("cache-load").start(task);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${cache.post.max-size:10000}")
+    private long postMaxSize;
+
+    @Value("${cache.post-list.max-size:256}")
+    private long postListMaxSize;
+
+    @Value("${cache.post-version.max-size:100000}")
+    private long postVersionMaxSize;
+
+    @Value("${cache.local.ttl:10m}")
+    private Duration localTtl;
+
+    @Value("${cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${cache.redis.ttl:1h}")
+    private Duration redisTtl;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<RedisConnectionFactory> connectionFactory,
+            ObjectProvider<StringRedisTemplate> redisTemplate) {
+        List<Cache> caches = new ArrayList<>();
+        caches.add(localCache(POST_CACHE, postMaxSize));
+        caches.add(localCache(POST_LIST_CACHE, postListMaxSize));
+        caches.add(localCache(POST_DETAIL_LIST_CACHE, postListMaxSize));
+        caches.add(localCache(POST_VERSION_CACHE, postVersionMaxSize));
+
+        if (redisEnabled) {
+            ObjectMapper objectMapper = redisObjectMapper();
+            TypeFactory types = objectMapper.getTypeFactory();
+            RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory.getObject())
+                    .withCacheConfiguration(POST_CACHE,
+                            redisCacheConfiguration(objectMapper, types.constructType(PostDetail.class)))
+                    .withCacheConfiguration(POST_VERSION_CACHE,
+                            redisCacheConfiguration(objectMapper, types.constructType(PostVersion.class)))
+                    .withCacheConfiguration(POST_LIST_CACHE, redisCacheConfiguration(objectMapper,
+                            types.constructParametricType(PostPage.class, PostSummary.class)))
+                    .withCacheConfiguration(POST_DETAIL_LIST_CACHE, redisCacheConfiguration(objectMapper,
+                            types.constructParametricType(PostPage.class, PostDetail.class)))
+                    .disableCreateOnMissingCache()
+                    .build();
+            // not a bean, so the per-cache configurations above are only registered here
+            redisCacheManager.initializeCaches();
+            StringRedisTemplate publisher = redisTemplate.getObject();
+            caches.replaceAll(cache -> new TwoLevelCache(cache.getName(), (CaffeineCache) cache,
+                    redisCacheManager.getCache(cache.getName()),
+                    key -> publisher.convertAndSend(INVALIDATION_CHANNEL,
+                            nodeId + SEPARATOR + cache.getName() + SEPARATOR + (key == null ? "" : key))));
+        }
+
+        // a version evicted before the update commits could be reloaded stale and answer 304 for a changed post
+        caches.replaceAll(cache -> POST_VERSION_CACHE.equals(cache.getName())
+                ? new TransactionAwareCacheDecorator(cache)
+                : cache);
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory, CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length < 3 || parts[0].equals(nodeId)) {
+                return;
+            }
+            Cache target = cacheManager.getCache(parts[1]);
+            if (target instanceof TransactionAwareCacheDecorator decorator) {
+                target = decorator.getTargetCache();
+            }
+            if (target instanceof TwoLevelCache cache) {
+                cache.invalidateLocal(parts[2].isEmpty() ? null : parts[2]);
+            }
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMetrics::new;
+    }
+
+    private CaffeineCache localCache(String name, long maxSize) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats();
+        if (virtualThreads) {
+            // a synchronous miss loads inside ConcurrentHashMap.compute, pinning the virtual thread
+            // for the whole query; async entries only install a future there and load elsewhere
+            return new CaffeineCache(name, builder.executor(VIRTUAL_THREAD_LOADER).buildAsync(), true);
+        }
+        return new CaffeineCache(name, builder.build());
+    }
+
+    private RedisCacheConfiguration redisCacheConfiguration(ObjectMapper objectMapper, JavaType valueType) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(redisTtl)
+                .prefixCacheNameWith("cache:")
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, valueType)));
+    }
+
+    private static ObjectMapper redisObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
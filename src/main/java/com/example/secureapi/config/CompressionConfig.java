@@ -0,0 +1,57 @@
+package com.example.secureapi.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import com.example.secureapi.compression.CompressionFilter;
+import com.example.secureapi.compression.ContentEncoding;
+
+/**
+ * Response compression, negotiated per request from {@code Accept-Encoding}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "compression.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionConfig.class);
+
+    @Bean
+    public CompressionFilter compressionFilter(@Value("${compression.brotli.enabled:true}") boolean brotli,
+                                               @Value("${compression.brotli.quality:4}") int brotliQuality,
+                                               @Value("${compression.gzip.level:6}") int gzipLevel,
+                                               @Value("${compression.min-response-size:1KB}") DataSize minSize,
+                                               @Value("${compression.mime-types:application/json,application/*+json,"
+                                                       + "application/x-ndjson,application/x-jackson-smile,"
+                                                       + "application/cbor,text/*}") List<MediaType> mimeTypes) {
+        List<ContentEncoding> encodings = new ArrayList<>();
+        if (brotli) {
+            if (ContentEncoding.BROTLI.isAvailable()) {
+                encodings.add(ContentEncoding.BROTLI);
+            } else {
+                log.warn("Brotli encoder unavailable on this platform, compressing with gzip only");
+            }
+        }
+        encodings.add(ContentEncoding.GZIP);
+        return new CompressionFilter(encodings, brotliQuality, gzipLevel, Math.toIntExact(minSize.toBytes()),
+                mimeTypes);
+    }
+
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilterRegistration(CompressionFilter filter) {
+        // outside the security chain, so cached and rejected responses are compressed too
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
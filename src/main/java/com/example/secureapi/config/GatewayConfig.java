@@ -0,0 +1,96 @@
+package com.example.secureapi.config;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.secureapi.gateway.GatewayProxyFilter;
+import com.example.secureapi.gateway.GatewayRoute;
+import com.example.secureapi.gateway.LoadBalancer;
+import com.example.secureapi.gateway.RouteTrie;
+import com.example.secureapi.gateway.UpstreamHealthChecker;
+import com.example.secureapi.gateway.UpstreamPolicy;
+import com.example.secureapi.gateway.UpstreamPool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(GatewayProperties.class)
+public class GatewayConfig {
+
+    @Bean
+    public RouteTrie gatewayRoutes(GatewayProperties properties, MeterRegistry meterRegistry) {
+        Set<String> ids = new HashSet<>();
+        List<GatewayRoute> routes = properties.getRoutes().stream().map(route -> {
+            if (route.getId() == null || !ids.add(route.getId())) {
+                throw new IllegalArgumentException("Gateway routes need a unique id: " + route.getId());
+            }
+            UpstreamPool upstreams = new UpstreamPool(route.getId(), upstreamUris(route),
+                    LoadBalancer.of(route.getBalancer()), policy(route), route.getHealthPath());
+            upstreams.bindTo(meterRegistry);
+            return new GatewayRoute(route.getId(), route.getPath(),
+                    Set.copyOf(route.getMethods().stream().map(method -> method.toUpperCase(Locale.ROOT)).toList()),
+                    upstreams, route.isStripPrefix(),
+                    route.getResponseTimeout() != null ? route.getResponseTimeout() : properties.getResponseTimeout());
+        }).toList();
+        return RouteTrie.compile(routes);
+    }
+
+    /**
+     * Shared by every route: the client keeps idle HTTP/1.1 connections per upstream and reuses them
+     * (pool size and keep-alive via the {@code jdk.httpclient.*} system properties).
+     */
+    @Bean
+    public HttpClient gatewayHttpClient(GatewayProperties properties) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Bean
+    public UpstreamHealthChecker upstreamHealthChecker(RouteTrie gatewayRoutes, HttpClient gatewayHttpClient,
+                                                       GatewayProperties properties) {
+        return new UpstreamHealthChecker(gatewayRoutes.routes().stream().map(GatewayRoute::upstreams).toList(),
+                gatewayHttpClient, properties.getHealthCheck().getTimeout(), properties.getHealthCheck().getThreshold());
+    }
+
+    @Bean
+    public GatewayProxyFilter gatewayProxyFilter(RouteTrie gatewayRoutes, HttpClient gatewayHttpClient) {
+        return new GatewayProxyFilter(gatewayRoutes, gatewayHttpClient);
+    }
+
+    @Bean
+    public FilterRegistrationBean<GatewayProxyFilter> gatewayProxyFilterRegistration(GatewayProxyFilter filter) {
+        // only run as the last filter of the security chain
+        FilterRegistrationBean<GatewayProxyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    private static List<URI> upstreamUris(GatewayProperties.Route route) {
+        List<URI> uris = new ArrayList<>();
+        if (route.getUri() != null) {
+            uris.add(route.getUri());
+        }
+        uris.addAll(route.getUris());
+        return uris;
+    }
+
+    private static UpstreamPolicy policy(GatewayProperties.Route route) {
+        GatewayProperties.CircuitBreaker breaker = route.getCircuitBreaker();
+        return new UpstreamPolicy(route.getMaxConcurrent(), route.getEjectAfterFailures(), route.getEjectDuration(),
+                route.getSlowCallThreshold(), breaker.getWindow(), breaker.getMinimumCalls(),
+                breaker.getFailureRate(), breaker.getOpenDuration(), breaker.getHalfOpenCalls());
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.secureapi.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.example.secureapi.gateway.LoadBalancer;
+import com.example.secureapi.gateway.UpstreamPolicy;
+
+/**
+ * Upstream routes under {@code gateway.routes[n]}. A request is proxied by the route with the
+ * longest matching path prefix that allows its method; anything else is served locally. A route
+ * forwards to {@code uri}, or spreads over several {@code uris} with the chosen {@code balancer}.
+ */
+@ConfigurationProperties(prefix = "gateway")
+public class GatewayProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    private List<Route> routes = new ArrayList<>();
+    private final HealthCheck healthCheck = new HealthCheck();
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public void setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public HealthCheck getHealthCheck() {
+        return healthCheck;
+    }
+
+    /**
+     * Shared by the active checks of every route; the interval is {@code gateway.health-check.interval-ms}.
+     */
+    public static class HealthCheck {
+        private Duration timeout = Duration.ofSeconds(1);
+        private int threshold = 2;
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+    }
+
+    public static class Route {
+        private String id;
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private URI uri;
+        private List<URI> uris = new ArrayList<>();
+        private LoadBalancer.Type balancer = LoadBalancer.Type.LEAST_REQUESTS;
+        private String healthPath;
+        private boolean stripPrefix;
+        private Duration responseTimeout;
+        private int maxConcurrent = UpstreamPolicy.defaults().maxConcurrent();
+        private int ejectAfterFailures = UpstreamPolicy.defaults().ejectAfterFailures();
+        private Duration ejectDuration = UpstreamPolicy.defaults().ejectDuration();
+        private Duration slowCallThreshold = UpstreamPolicy.defaults().slowCallThreshold();
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public void setUri(URI uri) {
+            this.uri = uri;
+        }
+
+        public boolean isStripPrefix() {
+            return stripPrefix;
+        }
+
+        public void setStripPrefix(boolean stripPrefix) {
+            this.stripPrefix = stripPrefix;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public List<URI> getUris() {
+            return uris;
+        }
+
+        public void setUris(List<URI> uris) {
+            this.uris = uris;
+        }
+
+        public LoadBalancer.Type getBalancer() {
+            return balancer;
+        }
+
+        public void setBalancer(LoadBalancer.Type balancer) {
+            this.balancer = balancer;
+        }
+
+        public String getHealthPath() {
+            return healthPath;
+        }
+
+        public void setHealthPath(String healthPath) {
+            this.healthPath = healthPath;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getEjectAfterFailures() {
+            return ejectAfterFailures;
+        }
+
+        public void setEjectAfterFailures(int ejectAfterFailures) {
+            this.ejectAfterFailures = ejectAfterFailures;
+        }
+
+        public Duration getEjectDuration() {
+            return ejectDuration;
+        }
+
+        public void setEjectDuration(Duration ejectDuration) {
+            this.ejectDuration = ejectDuration;
+        }
+
+        public Duration getSlowCallThreshold() {
+            return slowCallThreshold;
+        }
+
+        public void setSlowCallThreshold(Duration slowCallThreshold) {
+            this.slowCallThreshold = slowCallThreshold;
+        }
+
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+    }
+
+    /**
+     * Opens once {@code failure-rate} of the last {@code window} calls (and at least
+     * {@code minimum-calls}) failed or were slow; after {@code open-duration} lets
+     * {@code half-open-calls} probes decide whether to close again.
+     */
+    public static class CircuitBreaker {
+        private int window = UpstreamPolicy.defaults().breakerWindow();
+        private int minimumCalls = UpstreamPolicy.defaults().breakerMinimumCalls();
+        private double failureRate = UpstreamPolicy.defaults().breakerFailureRate();
+        private Duration openDuration = UpstreamPolicy.defaults().breakerOpenDuration();
+        private int halfOpenCalls = UpstreamPolicy.defaults().breakerHalfOpenCalls();
+
+        public int getWindow() {
+            return window;
+        }
+
+        public void setWindow(int window) {
+            this.window = window;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRate() {
+            return failureRate;
+        }
+
+        public void setFailureRate(double failureRate) {
+            this.failureRate = failureRate;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+}
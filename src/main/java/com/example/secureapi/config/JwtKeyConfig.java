@@ -0,0 +1,110 @@
+package com.example.secureapi.config;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.example.secureapi.util.JwtClaimsCache;
+import com.example.secureapi.util.JwtKey;
+import com.example.secureapi.util.JwtKeyRing;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+/**
+ * Builds the JWT key ring from {@link JwtKeyProperties}. Configured keys are rotated by publishing
+ * the new key, switching {@code security.jwt.active-kid}, then removing the old key once its tokens
+ * have expired. Generated keys are rotated in place every {@code security.jwt.rotation-interval}.
+ */
+@Configuration
+@EnableConfigurationProperties(JwtKeyProperties.class)
+public class JwtKeyConfig {
+
+    private final JwtKeyProperties properties;
+    private final JwtClaimsCache claimsCache;
+    private JwtKeyRing keyRing;
+
+    public JwtKeyConfig(JwtKeyProperties properties, JwtClaimsCache claimsCache) {
+        this.properties = properties;
+        this.claimsCache = claimsCache;
+    }
+
+    @Bean
+    public JwtKeyRing jwtKeyRing() throws GeneralSecurityException {
+        if (properties.getKeys().isEmpty()) {
+            keyRing = JwtKeyRing.generate(algorithm(properties.getAlgorithm()));
+            return keyRing;
+        }
+        List<JwtKey> keys = new ArrayList<>();
+        for (JwtKeyProperties.Key key : properties.getKeys()) {
+            keys.add(load(key));
+        }
+        String activeKid = properties.getActiveKid() != null ? properties.getActiveKid() : keys.get(0).kid();
+        keyRing = new JwtKeyRing(keys, activeKid);
+        return keyRing;
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.rotation-check-interval-ms:60000}")
+    public void rotateGeneratedKeys() {
+        if (keyRing == null || !properties.getKeys().isEmpty() || properties.getRotationInterval().isZero()) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (keyRing.signingKey().createdAt().plus(properties.getRotationInterval()).isAfter(now)) {
+            return;
+        }
+        keyRing.rotate(JwtKeyRing.generateKey(keyRing.signingKey().algorithm()));
+
+        // a key stops signing when its successor is created; keep it until its last token has expired
+        Instant retireBefore = now.minus(properties.getRotationInterval()).minus(properties.getRetiredKeyTtl());
+        boolean retired = false;
+        for (JwtKey key : List.copyOf(keyRing.keys())) {
+            if (key != keyRing.signingKey() && key.createdAt().isBefore(retireBefore)) {
+                keyRing.retire(key.kid());
+                retired = true;
+            }
+        }
+        if (retired) {
+            claimsCache.clear();
+        }
+    }
+
+    private JwtKey load(JwtKeyProperties.Key key) throws GeneralSecurityException {
+        if (key.getKid() == null || key.getPublicKey() == null) {
+            throw new IllegalStateException("security.jwt.keys entries need a kid and a public-key");
+        }
+        SignatureAlgorithm algorithm = algorithm(key.getAlgorithm() != null ? key.getAlgorithm() : properties.getAlgorithm());
+        KeyFactory keyFactory = KeyFactory.getInstance(Jwts.SIG.EdDSA.equals(algorithm) ? "EdDSA" : "EC");
+        PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decode(key.getPublicKey())));
+        PrivateKey privateKey = key.getPrivateKey() != null
+                ? keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(key.getPrivateKey())))
+                : null;
+        return JwtKey.of(key.getKid(), algorithm, publicKey, privateKey, Instant.now());
+    }
+
+    private static SignatureAlgorithm algorithm(String id) {
+        SecureDigestAlgorithm<?, ?> algorithm = Jwts.SIG.get().get(id);
+        if (!(algorithm instanceof SignatureAlgorithm signatureAlgorithm) || id.startsWith("RS") || id.startsWith("PS")) {
+            throw new IllegalStateException("Unsupported JWT algorithm " + id + ", use ES256, ES384, ES512 or EdDSA");
+        }
+        return signatureAlgorithm;
+    }
+
+    private static byte[] decode(String key) {
+        // accept PEM as well as bare base64
+        return Base64.getMimeDecoder().decode(key.replaceAll("-----[A-Z ]+-----", ""));
+    }
+}
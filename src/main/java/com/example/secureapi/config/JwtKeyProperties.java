@@ -0,0 +1,101 @@
+package com.example.secureapi.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * JWT signing keys under {@code security.jwt}. Each key is a base64 DER key pair (PKCS#8 private,
+ * X.509 public); keys without a private key only verify. Without any keys a key pair is generated
+ * at startup, which is fine for a single node but invalidates tokens on restart.
+ */
+@ConfigurationProperties(prefix = "security.jwt")
+public class JwtKeyProperties {
+
+    private String algorithm = "ES256";
+    private String activeKid;
+    private List<Key> keys = new ArrayList<>();
+    private Duration rotationInterval = Duration.ZERO;
+    private Duration retiredKeyTtl = Duration.ofHours(48);
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public void setActiveKid(String activeKid) {
+        this.activeKid = activeKid;
+    }
+
+    public List<Key> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<Key> keys) {
+        this.keys = keys;
+    }
+
+    public Duration getRotationInterval() {
+        return rotationInterval;
+    }
+
+    public void setRotationInterval(Duration rotationInterval) {
+        this.rotationInterval = rotationInterval;
+    }
+
+    public Duration getRetiredKeyTtl() {
+        return retiredKeyTtl;
+    }
+
+    public void setRetiredKeyTtl(Duration retiredKeyTtl) {
+        this.retiredKeyTtl = retiredKeyTtl;
+    }
+
+    public static class Key {
+        private String kid;
+        private String algorithm;
+        private String privateKey;
+        private String publicKey;
+
+        public String getKid() {
+            return kid;
+        }
+
+        public void setKid(String kid) {
+            this.kid = kid;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public String getPrivateKey() {
+            return privateKey;
+        }
+
+        public void setPrivateKey(String privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(String publicKey) {
+            this.publicKey = publicKey;
+        }
+    }
+}
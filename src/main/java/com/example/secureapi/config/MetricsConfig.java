@@ -0,0 +1,25 @@
+package com.example.secureapi.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.secureapi.service.PasswordHashingService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Meters that are sampled at scrape time rather than recorded per request. Request-path meters
+ * live in {@link com.example.secureapi.security.SecurityMetrics}; HTTP route and repository
+ * latencies come from Spring Boot's own instrumentation, configured in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingService passwordHashingService) {
+        return registry -> Gauge.builder("auth.password.queue", passwordHashingService, PasswordHashingService::queueSize)
+                .description("Password hashing tasks waiting for a pool thread")
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.secureapi.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class PasswordConfig {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+
+    @Value("${security.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${security.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${security.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        String idForEncode = algorithm.toLowerCase();
+        if (!idForEncode.equals(BCRYPT) && !idForEncode.equals(ARGON2)) {
+            throw new IllegalStateException("Unknown password algorithm: " + algorithm);
+        }
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(
+                16, 32, argon2Parallelism, argon2MemoryKib, argon2Iterations);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                idForEncode, Map.of(BCRYPT, bcrypt, ARGON2, argon2));
+        // hashes stored before the {id} prefix was introduced are plain bcrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.secureapi.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.secureapi.jdbc.SlowQueryRecorder;
+import com.example.secureapi.jdbc.TimedDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(name = "persistence.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class PersistenceConfig {
+
+    @Bean
+    public SlowQueryRecorder slowQueryRecorder(MeterRegistry registry,
+                                               @Value("${persistence.slow-query.threshold:100ms}") Duration threshold,
+                                               @Value("${persistence.slow-query.critical-threshold:1s}") Duration critical,
+                                               @Value("${persistence.slow-query.log-sample-rate:0.1}") double sampleRate) {
+        return new SlowQueryRecorder(registry, threshold, critical, sampleRate);
+    }
+
+    /**
+     * Wraps the pool once it is configured. Static, and resolving the recorder lazily, so that the
+     * meter registry is not created before its own customizers are registered.
+     */
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor(ObjectProvider<SlowQueryRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)
+                        ? new TimedDataSource(dataSource, recorder.getObject())
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.secureapi.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.example.secureapi.security.DistributedRateLimitStore;
+import com.example.secureapi.security.RateLimitBandwidth;
+import com.example.secureapi.security.RateLimitBucketStore;
+import com.example.secureapi.security.RateLimitPolicy;
+import com.example.secureapi.security.RateLimitPolicyEngine;
+import com.example.secureapi.security.RateLimitStoreFactory;
+import com.example.secureapi.security.RedisRateLimitTokenSource;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    private static final List<RateLimitBandwidth> DEFAULT_LIMITS = List.of(RateLimitBandwidth.of(10, Duration.ofMinutes(1)));
+
+    @Value("${security.rate-limit.mode:local}")
+    private String mode;
+
+    @Value("${security.rate-limit.max-entries:262144}")
+    private int maxEntries;
+
+    @Value("${security.rate-limit.distributed.lease-size:5}")
+    private long leaseSize;
+
+    @Value("${security.rate-limit.distributed.lease-ttl:1s}")
+    private Duration leaseTtl;
+
+    @Value("${security.rate-limit.distributed.backoff:5s}")
+    private Duration backoff;
+
+    @Value("${security.rate-limit.distributed.fallback:LOCAL}")
+    private DistributedRateLimitStore.FallbackPolicy fallbackPolicy;
+
+    @Bean
+    public RateLimitStoreFactory rateLimitStoreFactory(StringRedisTemplate redisTemplate) {
+        if ("distributed".equalsIgnoreCase(mode)) {
+            return (name, bandwidths) -> new DistributedRateLimitStore(
+                    new RedisRateLimitTokenSource(redisTemplate, "rate-limit:" + name, bandwidths),
+                    new RateLimitBucketStore(bandwidths, maxEntries),
+                    fallbackPolicy, leaseSize, leaseTtl, backoff, maxEntries);
+        }
+        return (name, bandwidths) -> new RateLimitBucketStore(bandwidths, maxEntries);
+    }
+
+    @Bean
+    public RateLimitPolicyEngine rateLimitPolicyEngine(RateLimitProperties properties, RateLimitStoreFactory storeFactory) {
+        List<RateLimitPolicy> policies = new ArrayList<>();
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            if (policy.getName() == null || policy.getLimits().isEmpty()) {
+                throw new IllegalStateException("Rate limit policies need a name and at least one limit");
+            }
+            List<RateLimitBandwidth> bandwidths = policy.getLimits().stream()
+                    .map(limit -> new RateLimitBandwidth(limit.getCapacity(),
+                            limit.getRefillTokens() != null ? limit.getRefillTokens() : limit.getCapacity(),
+                            limit.getPeriod()))
+                    .toList();
+            policies.add(new RateLimitPolicy(policy.getName(), policy.getRoutes(), policy.getMethods(), policy.getRoles(),
+                    policy.getKeyBy(), bandwidths, storeFactory.create(policy.getName(), bandwidths)));
+        }
+        if (policies.isEmpty()) {
+            policies.add(new RateLimitPolicy("ip", List.of(), List.of(), Set.of(), RateLimitPolicy.KeyType.IP,
+                    DEFAULT_LIMITS, storeFactory.create("ip", DEFAULT_LIMITS)));
+        }
+        return new RateLimitPolicyEngine(policies);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.secureapi.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.example.secureapi.security.RateLimitPolicy;
+
+/**
+ * Rate-limit policies under {@code security.rate-limit.policies[n]}, evaluated in order. When none
+ * are configured every request is limited to 10 requests per minute per client IP.
+ */
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private List<Policy> policies = new ArrayList<>();
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
+
+    public static class Policy {
+        private String name;
+        private List<String> routes = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        private Set<String> roles = Set.of();
+        private RateLimitPolicy.KeyType keyBy = RateLimitPolicy.KeyType.IP;
+        private List<Limit> limits = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<String> routes) {
+            this.routes = routes;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public Set<String> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(Set<String> roles) {
+            this.roles = roles;
+        }
+
+        public RateLimitPolicy.KeyType getKeyBy() {
+            return keyBy;
+        }
+
+        public void setKeyBy(RateLimitPolicy.KeyType keyBy) {
+            this.keyBy = keyBy;
+        }
+
+        public List<Limit> getLimits() {
+            return limits;
+        }
+
+        public void setLimits(List<Limit> limits) {
+            this.limits = limits;
+        }
+    }
+
+    public static class Limit {
+        private long capacity;
+        private Long refillTokens;
+        private Duration period;
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public Long getRefillTokens() {
+            return refillTokens;
+        }
+
+        public void setRefillTokens(Long refillTokens) {
+            this.refillTokens = refillTokens;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+}
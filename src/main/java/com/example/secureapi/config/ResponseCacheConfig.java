@@ -0,0 +1,61 @@
+package com.example.secureapi.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.util.unit.DataSize;
+
+import com.example.secureapi.cache.ResponseCache;
+import com.example.secureapi.cache.ResponseCacheFilter;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The shared response cache in front of GET handlers and proxied routes, and the
+ * {@code Cache-Control} our own cacheable endpoints answer with.
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache responseCache(@Value("${cache.response.max-size:64MB}") DataSize maxSize,
+                                       @Value("${cache.response.max-entry-size:1MB}") DataSize maxEntrySize,
+                                       @Value("${cache.response.off-heap-threshold:16KB}") DataSize offHeapThreshold,
+                                       @Value("${cache.response.max-ttl:5m}") Duration maxTtl,
+                                       @Value("${cache.response.pass-ttl:30s}") Duration passTtl,
+                                       MeterRegistry meterRegistry) {
+        ResponseCache cache = new ResponseCache(maxSize.toBytes(), Math.toIntExact(maxEntrySize.toBytes()),
+                Math.toIntExact(offHeapThreshold.toBytes()), maxTtl, passTtl, Ticker.systemTicker());
+        cache.bindTo(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public ResponseCacheFilter responseCacheFilter(ResponseCache responseCache,
+                                                   @Value("${cache.response.collapse-timeout:5s}") Duration collapseTimeout) {
+        return new ResponseCacheFilter(responseCache, collapseTimeout);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilterRegistration(ResponseCacheFilter filter) {
+        // only run inside the security chain, where the caller's roles are known
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * Browsers revalidate every time (cheap with the ETag), shared caches such as ours keep the
+     * response for {@code shared-max-age} and may serve it stale while refreshing.
+     */
+    @Bean
+    public CacheControl edgeCacheControl(@Value("${cache.response.shared-max-age:10s}") Duration sharedMaxAge,
+                                         @Value("${cache.response.stale-while-revalidate:30s}") Duration staleWhileRevalidate) {
+        return CacheControl.maxAge(Duration.ZERO).sMaxAge(sharedMaxAge).staleWhileRevalidate(staleWhileRevalidate);
+    }
+}
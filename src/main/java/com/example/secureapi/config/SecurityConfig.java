@@ -1,18 +1,24 @@
 package com.example.secureapi.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 
+import com.example.secureapi.cache.ResponseCacheFilter;
+import com.example.secureapi.gateway.GatewayProxyFilter;
+import com.example.secureapi.security.CustomUserDetailsService;
 import com.example.secureapi.security.JwtFilter;
 import com.example.secureapi.security.RateLimitingFilter;
+import com.example.secureapi.security.SecurityMetrics;
 import com.example.secureapi.util.JwtUtil;
 
 @Configuration
@@ -20,38 +26,80 @@ public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
     private final RateLimitingFilter rateLimitingFilter;
+    private final SecurityMetrics securityMetrics;
+    private final CustomUserDetailsService userDetailsService;
+    private final GatewayProxyFilter gatewayProxyFilter;
+    private final ResponseCacheFilter responseCacheFilter;
     
     @Value("${security.enable-rate-limiting:true}")
     private boolean enableRateLimiting;
 
-    public SecurityConfig(JwtUtil jwtUtil, RateLimitingFilter rateLimitingFilter) {
+    @Value("${cache.response.enabled:true}")
+    private boolean enableResponseCache;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    public SecurityConfig(JwtUtil jwtUtil, RateLimitingFilter rateLimitingFilter, SecurityMetrics securityMetrics,
+                          CustomUserDetailsService userDetailsService, GatewayProxyFilter gatewayProxyFilter,
+                          ResponseCacheFilter responseCacheFilter) {
         this.jwtUtil = jwtUtil;
         this.rateLimitingFilter = rateLimitingFilter;
+        this.securityMetrics = securityMetrics;
+        this.userDetailsService = userDetailsService;
+        this.gatewayProxyFilter = gatewayProxyFilter;
+        this.responseCacheFilter = responseCacheFilter;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/register", "/login").permitAll()
+                .requestMatchers("/register", "/login", "/.well-known/jwks.json").permitAll()
+                // the management listener (management.server.port) is internal, so Prometheus scrapes it
+                // without a token; actuator endpoints on the public listener are for admins only
+                .requestMatchers(new AndRequestMatcher(EndpointRequest.toAnyEndpoint(),
+                        request -> managementPort > 0 && request.getLocalPort() == managementPort)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                 .requestMatchers("/api/users/**").hasAnyRole("USER", "ADMIN", "READ_ONLY")
                 .anyRequest().authenticated()
             );
+        // proxied calls authenticate with the bearer token only, never a session the browser sends on its own
+        http.csrf(csrf -> csrf.ignoringRequestMatchers(gatewayProxyFilter::isRouted));
             
+        http.addFilter(new JwtFilter(authenticationManager, jwtUtil, securityMetrics, userDetailsService));
         if (enableRateLimiting) {
-            http.addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class);
+            // after JwtFilter so policies can key on the verified subject and role
+            http.addFilterAfter(rateLimitingFilter, BasicAuthenticationFilter.class);
+        }
+        if (enableResponseCache) {
+            // after authorization, so a cached response is only served to callers allowed to ask for it
+            http.addFilterAfter(responseCacheFilter, AuthorizationFilter.class);
         }
-        http.addFilter(new JwtFilter(authenticationManager, jwtUtil));
+        // last, so only authenticated, rate-limited and authorized requests reach an upstream, and
+        // proxied GETs are cached like local ones
+        http.addFilterAfter(gatewayProxyFilter, AuthorizationFilter.class);
         return http.build();
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
-        return configuration.getAuthenticationManager();
+    public FilterRegistrationBean<RateLimitingFilter> rateLimitingFilterRegistration(RateLimitingFilter filter) {
+        // only run inside the security chain, not a second time as a plain servlet filter
+        FilterRegistrationBean<RateLimitingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public FilterRegistrationBean<JwtFilter> jwtFilterRegistration(JwtFilter filter) {
+        // same as above: a second pass outside the chain would verify every token twice
+        FilterRegistrationBean<JwtFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+        return configuration.getAuthenticationManager();
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.secureapi.config;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.model.User;
+import com.example.secureapi.util.SingleFlight;
+
+/**
+ * Coalesces concurrent reads of the same post or user into one query, so a burst of requests for a
+ * key that has just expired from (or never reached) the caches costs the database one lookup.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Value("${single-flight.timeout:2s}")
+    private Duration timeout;
+
+    @Bean
+    public SingleFlight<Long, PostDetail> postLookups() {
+        return new SingleFlight<>("post", timeout);
+    }
+
+    @Bean
+    public SingleFlight<Long, Optional<User>> userLookups() {
+        return new SingleFlight<>("user", timeout);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.secureapi.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.example.secureapi.service.TokenRevocationService;
+import com.example.secureapi.util.TokenDenylist;
+
+@Configuration
+public class TokenRevocationConfig {
+
+    @Value("${security.jwt.revocation.bucket-width:1h}")
+    private Duration bucketWidth;
+
+    // must cover the longest-lived JWT that can be revoked
+    @Value("${security.jwt.revocation.max-token-ttl:48h}")
+    private Duration maxTokenTtl;
+
+    @Bean
+    public TokenDenylist tokenDenylist() {
+        return new TokenDenylist(bucketWidth, maxTokenTtl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "security.jwt.revocation.redis-sync", havingValue = "true")
+    public RedisMessageListenerContainer tokenRevocationListener(RedisConnectionFactory connectionFactory,
+            TokenRevocationService revocationService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> revocationService.applyRemote(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenRevocationService.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.secureapi.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.example.secureapi.security.CustomUserDetailsService;
+
+@Configuration
+public class UserCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "security.user-cache.redis-sync", havingValue = "true")
+    public RedisMessageListenerContainer userInvalidationListener(RedisConnectionFactory connectionFactory,
+            CustomUserDetailsService userDetailsService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> userDetailsService.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CustomUserDetailsService.CHANNEL));
+        return container;
+    }
+}
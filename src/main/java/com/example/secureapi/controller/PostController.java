@@ -1,53 +1,156 @@
 package com.example.secureapi.controller;
 
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
+import java.util.function.LongPredicate;
 
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.secureapi.audit.AuditEventType;
+import com.example.secureapi.audit.AuditLog;
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.dto.PostPage;
+import com.example.secureapi.dto.PostVersion;
 import com.example.secureapi.model.Post;
-import com.example.secureapi.repository.PostRepository;
+import com.example.secureapi.service.InvalidRequestException;
+import com.example.secureapi.service.PostBatchService;
 import com.example.secureapi.service.PostService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/posts")
 public class PostController {
     private final PostService postService;
-    private final PostRepository postRepository;
+    private final PostBatchService postBatchService;
+    private final AuditLog auditLog;
+    private final CacheControl edgeCacheControl;
 
-    public PostController(PostService postService, PostRepository postRepository) {
+    public PostController(PostService postService, PostBatchService postBatchService, AuditLog auditLog,
+                          CacheControl edgeCacheControl) {
         this.postService = postService;
-        this.postRepository = postRepository;
+        this.postBatchService = postBatchService;
+        this.auditLog = auditLog;
+        this.edgeCacheControl = edgeCacheControl;
     }
 
     @PostMapping
-    public ResponseEntity<Post> createPost(@Valid @RequestBody Post post) {
+    public ResponseEntity<PostDetail> createPost(@Valid @RequestBody Post post) {
         return ResponseEntity.ok(postService.createPost(post));
     }
 
+    /**
+     * Answers {@code If-None-Match} and {@code If-Modified-Since} from the cached version alone; the
+     * post itself is only loaded when it has changed.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Post> getPost(@PathVariable Long id) {
-        return ResponseEntity.ok(postService.getPost(id));
+    public ResponseEntity<PostDetail> getPost(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            PostVersion version = postService.getPostVersion(id);
+            if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+                return null;
+            }
+        }
+        return withValidators(postService.getPost(id), edgeCacheControl);
     }
 
-    @Cacheable("posts")
-    public List<Post> getAllPosts() {
-        return postRepository.findAll();
+    @GetMapping
+    public ResponseEntity<PostPage<?>> getPosts(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int limit,
+                                                @RequestParam(defaultValue = "summary") String view) {
+        // clamped before the cached lookup, so every limit above the maximum shares one entry
+        int pageSize = postService.pageSize(limit);
+        if ("full".equals(view)) {
+            return ResponseEntity.ok(postService.getPostDetails(cursor, pageSize));
+        }
+        if (!"summary".equals(view)) {
+            throw new InvalidRequestException("view must be 'summary' or 'full'");
+        }
+        return ResponseEntity.ok(postService.getPostSummaries(cursor, pageSize));
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        StreamingResponseBody body = postService::exportPosts;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Updates a post, honouring {@code If-Match}: 412 when the post has moved on from the version the
+     * client last read, 409 when another write lands while this one is in progress without it.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Post> updatePost(@PathVariable Long id, @RequestBody Post post) {
-        return ResponseEntity.ok(postService.updatePost(id, post));
+    public ResponseEntity<PostDetail> updatePost(@PathVariable Long id, @RequestBody Post post,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return withValidators(postService.updatePost(id, post, expectedVersion(ifMatch)), CacheControl.empty());
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deletePost(@PathVariable Long id) {
+    public ResponseEntity<String> deletePost(@PathVariable Long id, Principal principal) {
         postService.deletePost(id);
+        auditLog.record(AuditEventType.POST_DELETED, principal.getName(), "post " + id);
         return ResponseEntity.ok("Post deleted successfully");
     }
+
+    private static ResponseEntity<PostDetail> withValidators(PostDetail post, CacheControl cacheControl) {
+        PostVersion version = PostVersion.of(post);
+        return ResponseEntity.ok()
+                .eTag(version.eTag())
+                .lastModified(version.lastModifiedMillis())
+                .cacheControl(cacheControl)
+                .body(post);
+    }
+
+    // If-Match uses the strong comparison, so weak tags never match; CompressionFilter has already
+    // stripped any coding suffix ("3-gzip") from the tags
+    private static LongPredicate expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return version -> true;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        return version -> tags.stream()
+                .anyMatch(tag -> tag.isWildcard() || (!tag.weak() && tag.tag().equals(Long.toString(version))));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createPosts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        postBatchService.createAll(request.getInputStream(), response.getOutputStream());
+    }
+
+    @PutMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void updatePosts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        postBatchService.updateAll(request.getInputStream(), response.getOutputStream());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void deletePosts(HttpServletRequest request, HttpServletResponse response, Principal principal)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        postBatchService.deleteAll(request.getInputStream(), response.getOutputStream(),
+                id -> auditLog.record(AuditEventType.POST_DELETED, principal.getName(), "post " + id));
+    }
 }
@@ -1,18 +1,26 @@
 package com.example.secureapi.controller;
 
+import java.security.Principal;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.example.secureapi.dto.LoginDto;
+import com.example.secureapi.dto.TokenPair;
+import com.example.secureapi.dto.UserAccountUpdate;
 import com.example.secureapi.dto.UserDto;
 import com.example.secureapi.model.User;
+import com.example.secureapi.service.RefreshTokenService;
+import com.example.secureapi.service.TokenRevocationService;
 import com.example.secureapi.service.UserService;
-import com.example.secureapi.util.JwtUtil;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -20,23 +28,38 @@ import jakarta.validation.Valid;
 
 public class UserController {
     private final UserService userService;
-    private final JwtUtil jwtUtil;
 
-    public UserController(UserService userService, JwtUtil jwtUtil) {
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final CacheControl edgeCacheControl;
+
+    public UserController(UserService userService, TokenRevocationService tokenRevocationService,
+                          RefreshTokenService refreshTokenService, CacheControl edgeCacheControl) {
         this.userService = userService;
-        this.jwtUtil = jwtUtil;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.edgeCacheControl = edgeCacheControl;
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<User> getUser(@PathVariable Long id) {
         Optional<User> USER = userService.getUserById(id);
         if (USER.isPresent()) {
-            return ResponseEntity.ok(USER.get());
+            return ResponseEntity.ok().cacheControl(edgeCacheControl).body(USER.get());
         } else {
             return ResponseEntity.notFound().build(); // 404 if USER not found
         }
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/{id}")
+    public ResponseEntity<User> updateAccount(@PathVariable Long id, @RequestBody UserAccountUpdate update,
+                                              Principal principal) {
+        return userService.updateAccount(id, update, principal.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/register")
     public ResponseEntity<String> register(@Valid @RequestBody UserDto userDto) {
         userService.registerUser(userDto);
@@ -44,21 +67,26 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginDto loginDto) {
-        String token = userService.login(loginDto);
-        return ResponseEntity.ok(token);
+    public ResponseEntity<TokenPair> login(@RequestBody LoginDto loginDto, HttpServletRequest request) {
+        return ResponseEntity.ok(userService.login(loginDto, request.getRemoteAddr()));
     }
 
-    @PostMapping("/refresh-token")
-    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> request) {
-        String refreshToken = request.get("refreshToken");
-        if (jwtUtil.validateToken(refreshToken)) {
-            String username = jwtUtil.getUsernameFromToken(refreshToken);
-            String role = jwtUtil.getRoleFromToken(refreshToken);
-            String newAccessToken = jwtUtil.generateToken(username, role);
-            return ResponseEntity.ok(Map.of("accessToken", newAccessToken));
-        } else {
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) Map<String, String> request) {
+        if (!authorization.startsWith("Bearer ") || !tokenRevocationService.revoke(authorization.substring(7))) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        if (request != null) {
+            refreshTokenService.revoke(request.get("refreshToken"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/refresh-token")
+    public ResponseEntity<TokenPair> refreshToken(@RequestBody Map<String, String> request) {
+        return refreshTokenService.rotate(request.get("refreshToken"))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
     }
 }
\ No newline at end of file
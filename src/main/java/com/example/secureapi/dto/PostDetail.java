@@ -0,0 +1,21 @@
+package com.example.secureapi.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.secureapi.model.Post;
+import com.example.secureapi.model.User;
+
+/**
+ * Full post view, including content, with only the author's id and username.
+ */
+public record PostDetail(Long id, String title, String content, Long authorId, String authorUsername,
+        LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+
+    public static PostDetail from(Post post) {
+        User author = post.getAuthor();
+        return new PostDetail(post.getId(), post.getTitle(), post.getContent(),
+                author != null ? author.getId() : null,
+                author != null ? author.getUsername() : null,
+                post.getCreatedAt(), post.getUpdatedAt(), post.getVersion());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.secureapi.dto;
+
+import java.util.List;
+
+/**
+ * One page of posts, newest first; {@code nextCursor} is {@code null} on the last page.
+ */
+public record PostPage<T>(List<T> items, String nextCursor) {
+}
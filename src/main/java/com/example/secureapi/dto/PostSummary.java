@@ -0,0 +1,9 @@
+package com.example.secureapi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing view of a post: no content column and no author entity.
+ */
+public record PostSummary(Long id, String title, String authorUsername, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
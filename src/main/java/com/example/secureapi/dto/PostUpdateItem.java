@@ -0,0 +1,37 @@
+package com.example.secureapi.dto;
+
+import jakarta.validation.constraints.*;
+
+public class PostUpdateItem {
+    @NotNull(message = "Id is required")
+    private Long id;
+    @NotBlank(message = "Title cannot be blank")
+    @Size(max = 255, message = "Title cannot be longer than 255 characters")
+    private String title;
+    @NotBlank(message = "Content cannot be blank")
+    private String content;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
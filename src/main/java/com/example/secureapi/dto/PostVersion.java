@@ -0,0 +1,25 @@
+package com.example.secureapi.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The validators of a post: enough to answer a conditional request without reading its content.
+ */
+public record PostVersion(Long version, LocalDateTime updatedAt) {
+
+    public static PostVersion of(PostDetail post) {
+        return new PostVersion(post.version(), post.updatedAt());
+    }
+
+    /**
+     * Strong entity tag: the version changes on every write, whatever it touches.
+     */
+    public String eTag() {
+        return "\"" + version + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
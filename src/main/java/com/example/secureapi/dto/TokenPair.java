@@ -0,0 +1,7 @@
+package com.example.secureapi.dto;
+
+/**
+ * A signed access token and the opaque, single-use refresh token that renews it.
+ */
+public record TokenPair(String accessToken, String refreshToken) {
+}
@@ -0,0 +1,9 @@
+package com.example.secureapi.dto;
+
+import com.example.secureapi.model.User;
+
+/**
+ * Admin change to an account; {@code null} fields are left unchanged.
+ */
+public record UserAccountUpdate(User.Role role, Boolean enabled) {
+}
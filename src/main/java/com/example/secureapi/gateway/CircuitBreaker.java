@@ -0,0 +1,134 @@
+package com.example.secureapi.gateway;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker. While closed it tracks the last {@code windowSize} calls and opens
+ * once at least {@code minimumCalls} of them are in the window and the failing share reaches
+ * {@code failureRateThreshold}. While open every call is refused without touching the upstream.
+ * After {@code openDuration} it lets {@code halfOpenCalls} probes through: all succeeding closes it,
+ * any failing opens it again.
+ * <p>
+ * The closed-state check is a single volatile read; state changes take a short lock, which
+ * (unlike {@code synchronized}) does not pin a virtual thread.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile State state = State.CLOSED;
+    private volatile long openUntil;
+    private int next;
+    private int calls;
+    private int failures;
+    private volatile int probesLeft;
+    private int probeSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration,
+                          int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Whether a call may go ahead. A permitted call must be followed by exactly one {@link #onResult}.
+     */
+    public boolean tryAcquire(long nowNanos) {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN && nowNanos - openUntil >= 0) {
+                state = State.HALF_OPEN;
+                probesLeft = halfOpenCalls;
+                probeSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN && probesLeft > 0) {
+                probesLeft--;
+                return true;
+            }
+            return state == State.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #tryAcquire} but without taking a probe slot: false only while open, or half-open
+     * with every probe already handed out.
+     */
+    public boolean isCallPermitted(long nowNanos) {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> nowNanos - openUntil >= 0;
+            case HALF_OPEN -> probesLeft > 0;
+        };
+    }
+
+    public void onResult(boolean failure, long nowNanos) {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    if (calls == window.length && window[next]) {
+                        failures--;
+                    }
+                    window[next] = failure;
+                    next = (next + 1) % window.length;
+                    calls = Math.min(calls + 1, window.length);
+                    if (failure) {
+                        failures++;
+                    }
+                    if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+                        open(nowNanos);
+                    }
+                }
+                case HALF_OPEN -> {
+                    if (failure) {
+                        open(nowNanos);
+                    } else if (++probeSuccesses >= halfOpenCalls) {
+                        reset();
+                    }
+                }
+                // results of calls started before the breaker opened
+                case OPEN -> {
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    private void open(long nowNanos) {
+        state = State.OPEN;
+        openUntil = nowNanos + openNanos;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.secureapi.gateway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.secureapi.security.UserPrincipal;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Forwards requests that match a {@link GatewayRoute} to its upstream and serves everything else
+ * locally. It is the last filter of the security chain, so the token has been verified, rate limits
+ * applied and the request authorized before anything is forwarded.
+ * <p>
+ * Each request takes a slot on one upstream of the route's {@link UpstreamPool}. When no upstream
+ * can take it (all unhealthy, ejected, at their concurrency limit or behind an open circuit) the
+ * answer is an immediate 503, so a failing upstream costs the gateway neither threads nor timeouts.
+ * Connect errors, timeouts and 5xx answers count against the upstream that produced them.
+ * <p>
+ * Bodies are streamed in both directions a chunk at a time and never held in full. The verified
+ * identity is passed upstream in {@code X-Authenticated-*} headers; incoming copies of those headers
+ * and the {@code Authorization} header are dropped, so upstreams only ever see identities this
+ * gateway vouches for.
+ */
+public class GatewayProxyFilter extends OncePerRequestFilter {
+
+    public static final String USER_HEADER = "X-Authenticated-User";
+    public static final String USER_ID_HEADER = "X-Authenticated-User-Id";
+    public static final String ROLES_HEADER = "X-Authenticated-Roles";
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayProxyFilter.class);
+    private static final int CHUNK_SIZE = 8192;
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    // hop-by-hop (RFC 9110 7.6.1) plus what HttpClient sets itself and refuses from callers
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "proxy-connection", "te", "trailer", "transfer-encoding", "upgrade", "host",
+            "content-length", "expect", "http2-settings");
+    private static final Set<String> NOT_FORWARDED = Set.of("authorization", "forwarded", "x-forwarded-for",
+            "x-forwarded-host", "x-forwarded-proto", "x-forwarded-prefix", USER_HEADER.toLowerCase(Locale.ROOT),
+            USER_ID_HEADER.toLowerCase(Locale.ROOT), ROLES_HEADER.toLowerCase(Locale.ROOT));
+
+    private final RouteTrie routes;
+    private final HttpClient client;
+
+    public GatewayProxyFilter(RouteTrie routes, HttpClient client) {
+        this.routes = routes;
+        this.client = client;
+    }
+
+    /**
+     * Whether this request will be proxied rather than handled by a local controller.
+     */
+    public boolean isRouted(HttpServletRequest request) {
+        return !routes.isEmpty() && route(request) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GatewayRoute route = routes.isEmpty() ? null : route(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Upstream upstream = route.upstreams().acquire(System.nanoTime());
+        if (upstream == null) {
+            fail(response, route, HttpStatus.SERVICE_UNAVAILABLE, null);
+            return;
+        }
+        long start = System.nanoTime();
+        HttpResponse<InputStream> answer;
+        try {
+            answer = client.send(upstreamRequest(route, upstream, request), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (HttpConnectTimeoutException | ConnectException e) {
+            release(upstream, start, true);
+            fail(response, route, HttpStatus.BAD_GATEWAY, e);
+            return;
+        } catch (HttpTimeoutException e) {
+            release(upstream, start, true);
+            fail(response, route, HttpStatus.GATEWAY_TIMEOUT, e);
+            return;
+        } catch (IOException e) {
+            release(upstream, start, true);
+            fail(response, route, HttpStatus.BAD_GATEWAY, e);
+            return;
+        } catch (InterruptedException e) {
+            // the gateway is shutting down, not the upstream's fault
+            release(upstream, start, false);
+            Thread.currentThread().interrupt();
+            fail(response, route, HttpStatus.SERVICE_UNAVAILABLE, e);
+            return;
+        } catch (RuntimeException e) {
+            release(upstream, start, false);
+            throw e;
+        }
+        // latency is judged on the time to headers; the slot is held until the body has been relayed
+        long latency = System.nanoTime() - start;
+        boolean failure = answer.statusCode() >= 500;
+        try (InputStream body = answer.body()) {
+            // closing the body before it is drained, e.g. when the client goes away, aborts the exchange
+            response.setStatus(answer.statusCode());
+            copyResponseHeaders(answer, response);
+            stream(body, response.getOutputStream());
+        } catch (UpstreamBodyException e) {
+            // reset or truncated mid-body: rethrown so the client connection is aborted rather than
+            // a short body passing for a complete one
+            failure = true;
+            log.debug("Route {} failed while streaming the response: {}", route.id(), e.getCause().toString());
+            throw e;
+        } finally {
+            upstream.release(latency, failure, System.nanoTime());
+        }
+    }
+
+    private static void release(Upstream upstream, long start, boolean failure) {
+        long now = System.nanoTime();
+        upstream.release(now - start, failure, now);
+    }
+
+    private GatewayRoute route(HttpServletRequest request) {
+        return routes.match(request.getMethod(), path(request));
+    }
+
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+
+    private HttpRequest upstreamRequest(GatewayRoute route, Upstream upstream, HttpServletRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(
+                        route.target(upstream.uri(), path(request), request.getQueryString()))
+                .timeout(route.responseTimeout());
+        Set<String> connectionTokens = connectionTokens(request.getHeader(HttpHeaders.CONNECTION));
+        for (Enumeration<String> names = request.getHeaderNames(); names.hasMoreElements(); ) {
+            String name = names.nextElement();
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (HOP_BY_HOP.contains(lower) || NOT_FORWARDED.contains(lower) || connectionTokens.contains(lower)) {
+                continue;
+            }
+            for (Enumeration<String> values = request.getHeaders(name); values.hasMoreElements(); ) {
+                builder.header(name, values.nextElement());
+            }
+        }
+        forwardedHeaders(route, request, builder);
+        identityHeaders(builder);
+        return builder.method(request.getMethod(), bodyPublisher(request)).build();
+    }
+
+    private static HttpRequest.BodyPublisher bodyPublisher(HttpServletRequest request) {
+        long length = request.getContentLengthLong();
+        boolean chunked = request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
+        if (length == 0 || (length < 0 && !chunked)) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        // pulled from the servlet stream as the upstream connection accepts it
+        HttpRequest.BodyPublisher stream = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return request.getInputStream();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return length > 0 ? HttpRequest.BodyPublishers.fromPublisher(stream, length) : stream;
+    }
+
+    private static void forwardedHeaders(GatewayRoute route, HttpServletRequest request, HttpRequest.Builder builder) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        builder.header("X-Forwarded-For", forwardedFor == null
+                ? request.getRemoteAddr()
+                : forwardedFor + ", " + request.getRemoteAddr());
+        builder.header("X-Forwarded-Proto", request.getScheme());
+        String host = request.getHeader(HttpHeaders.HOST);
+        if (host != null) {
+            builder.header("X-Forwarded-Host", host);
+        }
+        if (route.stripPrefix()) {
+            builder.header("X-Forwarded-Prefix", request.getContextPath() + route.pathPrefix());
+        }
+    }
+
+    private static void identityHeaders(HttpRequest.Builder builder) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // anonymous tokens report isAuthenticated() too; "anonymousUser" is not an identity to vouch for
+        if (authentication == null || !authentication.isAuthenticated() || TRUST_RESOLVER.isAnonymous(authentication)) {
+            return;
+        }
+        builder.header(USER_HEADER, authentication.getName());
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.id() != null) {
+            builder.header(USER_ID_HEADER, principal.id().toString());
+        }
+        String roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith("ROLE_") ? authority.substring(5) : authority)
+                .collect(Collectors.joining(","));
+        if (!roles.isEmpty()) {
+            builder.header(ROLES_HEADER, roles);
+        }
+    }
+
+    private static void copyResponseHeaders(HttpResponse<?> upstream, HttpServletResponse response) {
+        Map<String, List<String>> headers = upstream.headers().map();
+        Set<String> connectionTokens = connectionTokens(upstream.headers().firstValue(HttpHeaders.CONNECTION).orElse(null));
+        headers.forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (name.startsWith(":") || connectionTokens.contains(lower)
+                    || (HOP_BY_HOP.contains(lower) && !lower.equals("content-length"))) {
+                return;
+            }
+            for (String value : values) {
+                response.addHeader(name, value);
+            }
+        });
+    }
+
+    private static Set<String> connectionTokens(String connection) {
+        if (connection == null) {
+            return Set.of();
+        }
+        return Arrays.stream(connection.toLowerCase(Locale.ROOT).split(","))
+                .map(String::trim)
+                .collect(Collectors.toSet());
+    }
+
+    // flushes whenever the upstream has nothing more buffered, so streamed responses are not held back;
+    // read failures are the upstream's and surface as UpstreamBodyException, write failures the client's
+    private static void stream(InputStream in, OutputStream out) throws IOException {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = read(in, chunk)) >= 0) {
+            out.write(chunk, 0, read);
+            if (available(in) == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private static int read(InputStream in, byte[] chunk) throws UpstreamBodyException {
+        try {
+            return in.read(chunk);
+        } catch (IOException e) {
+            throw new UpstreamBodyException(e);
+        }
+    }
+
+    private static int available(InputStream in) throws UpstreamBodyException {
+        try {
+            return in.available();
+        } catch (IOException e) {
+            throw new UpstreamBodyException(e);
+        }
+    }
+
+    private static void fail(HttpServletResponse response, GatewayRoute route, HttpStatus status, Exception e)
+            throws IOException {
+        log.debug("Route {} failed with {}: {}", route.id(), status.value(),
+                e != null ? e.toString() : "no upstream available");
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(status.getReasonPhrase());
+    }
+
+    private static final class UpstreamBodyException extends IOException {
+
+        UpstreamBodyException(IOException cause) {
+            super(cause);
+        }
+    }
+}
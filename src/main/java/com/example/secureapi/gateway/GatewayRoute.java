@@ -0,0 +1,47 @@
+package com.example.secureapi.gateway;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * One upstream route: requests under {@code pathPrefix} with one of {@code methods} (any when empty)
+ * are forwarded to one of {@code upstreams}, with the prefix removed first when {@code stripPrefix} is
+ * set.
+ */
+public record GatewayRoute(String id, String pathPrefix, Set<String> methods, UpstreamPool upstreams,
+                           boolean stripPrefix, Duration responseTimeout) {
+
+    public GatewayRoute {
+        if (!pathPrefix.startsWith("/")) {
+            throw new IllegalArgumentException("Route " + id + ": path must start with '/': " + pathPrefix);
+        }
+        methods = Set.copyOf(methods);
+    }
+
+    public boolean allows(String method) {
+        return methods.isEmpty() || methods.contains(method);
+    }
+
+    /**
+     * The URI on {@code upstream} for a request path and raw query string, both still percent-encoded.
+     */
+    public URI target(URI upstream, String path, String query) {
+        String forwardedPath = stripPrefix ? path.substring(Math.min(prefixLength(), path.length())) : path;
+        String base = upstream.toString();
+        StringBuilder uri = new StringBuilder(base.length() + forwardedPath.length() + 16);
+        uri.append(base, 0, base.endsWith("/") ? base.length() - 1 : base.length());
+        if (forwardedPath.isEmpty() || forwardedPath.charAt(0) != '/') {
+            uri.append('/');
+        }
+        uri.append(forwardedPath);
+        if (query != null) {
+            uri.append('?').append(query);
+        }
+        return URI.create(uri.toString());
+    }
+
+    private int prefixLength() {
+        return pathPrefix.endsWith("/") ? pathPrefix.length() - 1 : pathPrefix.length();
+    }
+}
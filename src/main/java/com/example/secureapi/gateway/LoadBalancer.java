@@ -0,0 +1,93 @@
+package com.example.secureapi.gateway;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks one of the upstreams that are {@linkplain Upstream#isAvailable available} at
+ * {@code nowNanos}, or {@code null} when none is. Implementations must be thread-safe and should not
+ * allocate; {@code upstreams} is never empty.
+ */
+@FunctionalInterface
+public interface LoadBalancer {
+
+    Upstream choose(Upstream[] upstreams, long nowNanos);
+
+    enum Type {
+        ROUND_ROBIN, LEAST_REQUESTS, EWMA
+    }
+
+    static LoadBalancer of(Type type) {
+        return switch (type) {
+            case ROUND_ROBIN -> roundRobin();
+            case LEAST_REQUESTS -> leastRequests();
+            case EWMA -> ewma();
+        };
+    }
+
+    /**
+     * The next upstream in turn, skipping over unavailable ones.
+     */
+    static LoadBalancer roundRobin() {
+        AtomicInteger counter = new AtomicInteger();
+        return (upstreams, now) -> {
+            int size = upstreams.length;
+            int start = Math.floorMod(counter.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Upstream upstream = upstreams[(start + i) % size];
+                if (upstream.isAvailable(now)) {
+                    return upstream;
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Fewest requests in flight; ties go round-robin so an idle pool still spreads load.
+     */
+    static LoadBalancer leastRequests() {
+        AtomicInteger counter = new AtomicInteger();
+        return (upstreams, now) -> {
+            int size = upstreams.length;
+            int start = Math.floorMod(counter.getAndIncrement(), size);
+            Upstream best = null;
+            for (int i = 0; i < size; i++) {
+                Upstream upstream = upstreams[(start + i) % size];
+                if (!upstream.isAvailable(now)) {
+                    continue;
+                }
+                if (best == null || upstream.outstanding() < best.outstanding()) {
+                    best = upstream;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Lowest decayed latency average times requests in flight (plus one), so a slow upstream gets
+     * less traffic and a busy fast one is not piled onto. Averages decay while an upstream is idle,
+     * which lets a recovered upstream win traffic back.
+     */
+    static LoadBalancer ewma() {
+        AtomicInteger counter = new AtomicInteger();
+        return (upstreams, now) -> {
+            int size = upstreams.length;
+            int start = Math.floorMod(counter.getAndIncrement(), size);
+            Upstream best = null;
+            double bestScore = Double.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                Upstream upstream = upstreams[(start + i) % size];
+                if (!upstream.isAvailable(now)) {
+                    continue;
+                }
+                double score = upstream.latencyEwmaNanos(now) * (upstream.outstanding() + 1);
+                if (score < bestScore) {
+                    best = upstream;
+                    bestScore = score;
+                }
+            }
+            return best;
+        };
+    }
+}
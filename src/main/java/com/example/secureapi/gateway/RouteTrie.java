@@ -0,0 +1,126 @@
+package com.example.secureapi.gateway;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Routes compiled into a trie of path segments. A lookup walks the request path once, in place,
+ * and returns the route with the longest matching prefix that allows the method; among routes with
+ * the same prefix the first configured wins. Prefixes only match on segment boundaries, so
+ * {@code /api/orders} matches {@code /api/orders/1} but not {@code /api/ordersx}.
+ */
+public final class RouteTrie {
+
+    private final Node root;
+    private final List<GatewayRoute> routes;
+
+    private RouteTrie(Node root, List<GatewayRoute> routes) {
+        this.root = root;
+        this.routes = routes;
+    }
+
+    public static RouteTrie compile(List<GatewayRoute> routes) {
+        Node root = new Node();
+        for (GatewayRoute route : routes) {
+            Node node = root;
+            for (String segment : route.pathPrefix().split("/")) {
+                if (!segment.isEmpty()) {
+                    node = node.child(segment);
+                }
+            }
+            node.routes.add(route);
+        }
+        root.freeze();
+        return new RouteTrie(root, List.copyOf(routes));
+    }
+
+    /**
+     * The route for {@code path} (without the context path), or {@code null} when none matches.
+     */
+    public GatewayRoute match(String method, String path) {
+        GatewayRoute best = root.first(method);
+        Node node = root;
+        int pos = 0;
+        int length = path.length();
+        while (pos < length) {
+            if (path.charAt(pos) != '/') {
+                break;
+            }
+            int start = pos + 1;
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                node = node.find(path, start, end);
+                if (node == null) {
+                    break;
+                }
+                GatewayRoute candidate = node.first(method);
+                if (candidate != null) {
+                    best = candidate;
+                }
+            }
+            pos = end;
+        }
+        return best;
+    }
+
+    public boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    /**
+     * Every route, in configuration order.
+     */
+    public List<GatewayRoute> routes() {
+        return routes;
+    }
+
+    private static final class Node {
+        private final List<GatewayRoute> routes = new ArrayList<>(1);
+        private final List<Node> childList = new ArrayList<>();
+        private final List<String> labelList = new ArrayList<>();
+        private Node[] children;
+        private String[] labels;
+
+        Node child(String label) {
+            int index = labelList.indexOf(label);
+            if (index >= 0) {
+                return childList.get(index);
+            }
+            Node child = new Node();
+            labelList.add(label);
+            childList.add(child);
+            return child;
+        }
+
+        void freeze() {
+            children = childList.toArray(Node[]::new);
+            labels = labelList.toArray(String[]::new);
+            Arrays.stream(children).forEach(Node::freeze);
+        }
+
+        // children are few per level, so a scan with regionMatches beats hashing a substring
+        Node find(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < labels.length; i++) {
+                String label = labels[i];
+                if (label.length() == length && path.regionMatches(start, label, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        GatewayRoute first(String method) {
+            for (GatewayRoute route : routes) {
+                if (route.allows(method)) {
+                    return route;
+                }
+            }
+            return null;
+        }
+    }
+}
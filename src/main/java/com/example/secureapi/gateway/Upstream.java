@@ -0,0 +1,149 @@
+package com.example.secureapi.gateway;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * One upstream server of a route and what the gateway knows about it: requests in flight, a
+ * latency average, passive and active health, and its circuit breaker.
+ * <p>
+ * A request takes a slot with {@link #tryAcquire} and must hand it back with {@link #release}.
+ */
+public final class Upstream {
+
+    // how quickly an idle upstream's latency average fades, so a recovered server is tried again
+    private static final double DECAY_NANOS = 10_000_000_000d;
+
+    private final URI uri;
+    private final UpstreamPolicy policy;
+    private final CircuitBreaker breaker;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    // racy read-modify-write; a lost sample only nudges the average
+    private volatile double latencyEwma;
+    private volatile long latencyStamp;
+    private volatile long ejectedUntil;
+    private volatile boolean ejected;
+    private volatile boolean healthy = true;
+    private int healthStreak;
+
+    volatile Timer successTimer;
+    volatile Timer failureTimer;
+
+    public Upstream(URI uri, UpstreamPolicy policy) {
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("Upstream must be an absolute http(s) URI: " + uri);
+        }
+        this.uri = uri;
+        this.policy = policy;
+        this.breaker = policy.newCircuitBreaker();
+    }
+
+    public URI uri() {
+        return uri;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Whether the balancer may consider this upstream; {@link #tryAcquire} still has the final word.
+     */
+    public boolean isAvailable(long nowNanos) {
+        if (!healthy || outstanding.get() >= policy.maxConcurrent()) {
+            return false;
+        }
+        if (ejected) {
+            if (nowNanos - ejectedUntil < 0) {
+                return false;
+            }
+            ejected = false;
+        }
+        return breaker.isCallPermitted(nowNanos);
+    }
+
+    /**
+     * The latency average, faded by how long the upstream has gone without a response.
+     */
+    public double latencyEwmaNanos(long nowNanos) {
+        double ewma = latencyEwma;
+        long idle = nowNanos - latencyStamp;
+        return idle <= 0 ? ewma : ewma * Math.exp(-idle / DECAY_NANOS);
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        int current;
+        do {
+            current = outstanding.get();
+            if (current >= policy.maxConcurrent()) {
+                return false;
+            }
+        } while (!outstanding.compareAndSet(current, current + 1));
+        if (!breaker.tryAcquire(nowNanos)) {
+            outstanding.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ends a request started with {@link #tryAcquire}.
+     *
+     * @param latencyNanos time until the upstream answered with headers, or gave up
+     * @param failure      the upstream was unreachable, timed out or answered 5xx
+     */
+    public void release(long latencyNanos, boolean failure, long nowNanos) {
+        outstanding.decrementAndGet();
+        recordLatency(latencyNanos, nowNanos);
+        breaker.onResult(failure || latencyNanos >= policy.slowCallThreshold().toNanos(), nowNanos);
+        if (!failure) {
+            consecutiveFailures.set(0);
+        } else if (consecutiveFailures.incrementAndGet() >= policy.ejectAfterFailures()) {
+            consecutiveFailures.set(0);
+            ejectedUntil = nowNanos + policy.ejectDuration().toNanos();
+            ejected = true;
+        }
+        Timer timer = failure ? failureTimer : successTimer;
+        if (timer != null) {
+            timer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Applies one active health check; it takes {@code threshold} agreeing results in a row to flip
+     * the state.
+     */
+    synchronized void onHealthCheck(boolean passed, int threshold) {
+        if (passed == healthy) {
+            healthStreak = 0;
+        } else if (++healthStreak >= threshold) {
+            healthy = passed;
+            healthStreak = 0;
+        }
+    }
+
+    // peak-sensitive: a slower sample replaces the average outright, faster ones pull it down gradually
+    private void recordLatency(long latencyNanos, long nowNanos) {
+        double current = latencyEwmaNanos(nowNanos);
+        latencyEwma = latencyNanos > current ? latencyNanos : current * 0.8 + latencyNanos * 0.2;
+        latencyStamp = nowNanos;
+    }
+
+    @Override
+    public String toString() {
+        return uri.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.secureapi.gateway;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Active health checks: every interval each upstream of a route with a health path gets a
+ * {@code GET}; a 2xx passes, anything else (including no answer within the timeout) fails. Probes
+ * are sent asynchronously, so one slow upstream never holds up the others or the next round.
+ */
+public class UpstreamHealthChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamHealthChecker.class);
+
+    private final List<UpstreamPool> pools;
+    private final HttpClient client;
+    private final Duration timeout;
+    private final int threshold;
+
+    public UpstreamHealthChecker(List<UpstreamPool> pools, HttpClient client, Duration timeout, int threshold) {
+        this.pools = pools;
+        this.client = client;
+        this.timeout = timeout;
+        this.threshold = threshold;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.health-check.interval-ms:5000}")
+    public void checkAll() {
+        for (UpstreamPool pool : pools) {
+            if (pool.healthPath() == null) {
+                continue;
+            }
+            for (Upstream upstream : pool.upstreams()) {
+                check(upstream, pool.healthPath());
+            }
+        }
+    }
+
+    void check(Upstream upstream, String path) {
+        URI uri = upstream.uri().resolve(path);
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            boolean passed = error == null && response.statusCode() / 100 == 2;
+            boolean wasHealthy = upstream.isHealthy();
+            upstream.onHealthCheck(passed, threshold);
+            if (wasHealthy != upstream.isHealthy()) {
+                log.warn("Upstream {} is now {}", upstream, passed ? "healthy" : "unhealthy");
+            }
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.secureapi.gateway;
+
+import java.time.Duration;
+
+/**
+ * How one route treats each of its upstreams.
+ *
+ * @param maxConcurrent        requests in flight per upstream before it is skipped; a route whose
+ *                             upstreams are all at the limit answers 503 at once instead of queueing
+ * @param ejectAfterFailures   consecutive failures (connect errors, timeouts, 5xx) that take an upstream
+ *                             out of rotation for {@code ejectDuration}
+ * @param slowCallThreshold    responses slower than this count as failures for the circuit breaker
+ */
+public record UpstreamPolicy(int maxConcurrent, int ejectAfterFailures, Duration ejectDuration,
+                             Duration slowCallThreshold, int breakerWindow, int breakerMinimumCalls,
+                             double breakerFailureRate, Duration breakerOpenDuration, int breakerHalfOpenCalls) {
+
+    public static UpstreamPolicy defaults() {
+        return new UpstreamPolicy(200, 5, Duration.ofSeconds(30), Duration.ofSeconds(5), 50, 20, 0.5,
+                Duration.ofSeconds(10), 3);
+    }
+
+    public UpstreamPolicy {
+        if (maxConcurrent < 1 || ejectAfterFailures < 1) {
+            throw new IllegalArgumentException("max-concurrent and eject-after-failures must be positive");
+        }
+    }
+
+    CircuitBreaker newCircuitBreaker() {
+        return new CircuitBreaker(breakerWindow, breakerMinimumCalls, breakerFailureRate, breakerOpenDuration,
+                breakerHalfOpenCalls);
+    }
+}
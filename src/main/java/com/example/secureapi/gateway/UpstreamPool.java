@@ -0,0 +1,110 @@
+package com.example.secureapi.gateway;
+
+import java.net.URI;
+import java.util.List;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * The upstreams behind one route. {@link #acquire} asks the {@link LoadBalancer} to pick among the
+ * upstreams that are healthy, not ejected, under their concurrency limit and not behind an open
+ * circuit, and returns {@code null} straight away when there are none.
+ */
+public final class UpstreamPool implements MeterBinder {
+
+    private final String routeId;
+    private final List<Upstream> upstreams;
+    // what the balancer scans on every request, so selection needs no per-request candidate list
+    private final Upstream[] choices;
+    private final LoadBalancer balancer;
+    private final String healthPath;
+    private volatile Counter rejections;
+
+    public UpstreamPool(String routeId, List<URI> uris, LoadBalancer balancer, UpstreamPolicy policy,
+                        String healthPath) {
+        if (uris.isEmpty()) {
+            throw new IllegalArgumentException("Route " + routeId + ": at least one upstream uri is required");
+        }
+        this.routeId = routeId;
+        this.upstreams = uris.stream().map(uri -> new Upstream(uri, policy)).toList();
+        this.choices = upstreams.toArray(Upstream[]::new);
+        this.balancer = balancer;
+        this.healthPath = healthPath;
+    }
+
+    /**
+     * One round-robin upstream with default limits and no active health checks.
+     */
+    public static UpstreamPool of(String routeId, URI uri) {
+        return new UpstreamPool(routeId, List.of(uri), LoadBalancer.roundRobin(), UpstreamPolicy.defaults(), null);
+    }
+
+    public List<Upstream> upstreams() {
+        return upstreams;
+    }
+
+    /**
+     * The path probed by {@link UpstreamHealthChecker}, or {@code null} when only passive checks apply.
+     */
+    public String healthPath() {
+        return healthPath;
+    }
+
+    /**
+     * An upstream with a slot taken for this request, or {@code null} when none can take it.
+     */
+    public Upstream acquire(long nowNanos) {
+        if (upstreams.size() == 1) {
+            Upstream only = upstreams.get(0);
+            if (only.isAvailable(nowNanos) && only.tryAcquire(nowNanos)) {
+                return only;
+            }
+            return reject();
+        }
+        // lost a race for the last slot or probe: choose again, at most once per upstream
+        for (int attempt = 0; attempt < choices.length; attempt++) {
+            Upstream chosen = balancer.choose(choices, nowNanos);
+            if (chosen == null) {
+                break;
+            }
+            if (chosen.tryAcquire(nowNanos)) {
+                return chosen;
+            }
+        }
+        return reject();
+    }
+
+    private Upstream reject() {
+        Counter counter = rejections;
+        if (counter != null) {
+            counter.increment();
+        }
+        return null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejections = Counter.builder("gateway.upstream.rejected")
+                .description("Requests answered 503 because no upstream of the route could take them")
+                .tag("route", routeId)
+                .register(registry);
+        for (Upstream upstream : upstreams) {
+            Tags tags = Tags.of("route", routeId, "upstream", upstream.uri().getAuthority());
+            upstream.successTimer = Timer.builder("gateway.upstream.requests").tags(tags).tag("outcome", "success")
+                    .publishPercentileHistogram().register(registry);
+            upstream.failureTimer = Timer.builder("gateway.upstream.requests").tags(tags).tag("outcome", "failure")
+                    .publishPercentileHistogram().register(registry);
+            Gauge.builder("gateway.upstream.outstanding", upstream, Upstream::outstanding).tags(tags)
+                    .register(registry);
+            Gauge.builder("gateway.upstream.circuit.state", upstream, u -> u.circuitState().ordinal())
+                    .description("0 closed, 1 half-open, 2 open").tags(tags).register(registry);
+            Gauge.builder("gateway.upstream.healthy", upstream, u -> u.isHealthy() ? 1 : 0).tags(tags)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.secureapi.jdbc;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every JDBC statement execution into {@code db.statement}. Executions over the slow threshold
+ * are counted in {@code db.statement.slow} and a sample of them is logged with their SQL; those over
+ * the critical threshold are always logged. Replaces {@code spring.jpa.show-sql}, which wrote every
+ * statement to stdout on the request thread.
+ */
+public class SlowQueryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.slow");
+    private static final int MAX_LOGGED_SQL = 500;
+
+    private final Timer statements;
+    private final Counter slowStatements;
+    private final long slowNanos;
+    private final long criticalNanos;
+    private final double logSampleRate;
+
+    public SlowQueryRecorder(MeterRegistry registry, Duration slowThreshold, Duration criticalThreshold,
+                             double logSampleRate) {
+        this.statements = Timer.builder("db.statement")
+                .description("JDBC statement execution, excluding result set reads")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        this.slowStatements = Counter.builder("db.statement.slow")
+                .description("Statements slower than the slow-query threshold")
+                .register(registry);
+        this.slowNanos = slowThreshold.toNanos();
+        this.criticalNanos = criticalThreshold.toNanos();
+        this.logSampleRate = logSampleRate;
+    }
+
+    public void record(String sql, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        statements.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed < slowNanos) {
+            return;
+        }
+        slowStatements.increment();
+        if (elapsed >= criticalNanos || ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.warn("{} ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsed), abbreviate(sql));
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.secureapi.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections whose statements report each {@code execute*} call to a
+ * {@link SlowQueryRecorder}. {@code unwrap} still reaches the pool, so pool metrics keep working.
+ */
+public class TimedDataSource extends DelegatingDataSource {
+
+    private final SlowQueryRecorder recorder;
+
+    public TimedDataSource(DataSource target, SlowQueryRecorder recorder) {
+        super(target);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    Object result = invoke(method, connection, args);
+                    if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                        // prepareStatement and prepareCall carry their SQL; createStatement passes it to execute
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return timed(method.getReturnType(), statement, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object timed(Class<?> type, Statement statement, String preparedSql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invoke(method, statement, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(method, statement, args);
+            } finally {
+                recorder.record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql,
+                        start);
+            }
+        });
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class;
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        };
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
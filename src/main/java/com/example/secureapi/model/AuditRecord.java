@@ -0,0 +1,62 @@
+package com.example.secureapi.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+/**
+ * Row of the {@code audit_events} table. Rows are written in batches by
+ * {@link com.example.secureapi.audit.JdbcAuditSink} and never updated; the entity exists so the
+ * schema is managed with the rest of the model.
+ */
+@Entity
+@Table(name = "audit_events", indexes = {
+    @Index(name = "idx_audit_events_occurred_at", columnList = "occurred_at")
+})
+public class AuditRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private Instant occurredAt;
+
+    @Column(nullable = false, length = 32, updatable = false)
+    private String type;
+
+    @Column(updatable = false)
+    private String principal;
+
+    @Column(name = "client_ip", length = 45, updatable = false)
+    private String clientIp;
+
+    @Column(length = 1024, updatable = false)
+    private String detail;
+
+    protected AuditRecord() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
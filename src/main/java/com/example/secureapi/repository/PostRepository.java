@@ -1,9 +1,58 @@
 package com.example.secureapi.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.dto.PostSummary;
+import com.example.secureapi.dto.PostVersion;
 import com.example.secureapi.model.Post;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {}
\ No newline at end of file
+public interface PostRepository extends JpaRepository<Post, Long>, PostStreamingRepository {
+
+    @Query("select p.id from Post p where p.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("""
+            select new com.example.secureapi.dto.PostDetail(p.id, p.title, p.content, a.id, a.username, p.createdAt, p.updatedAt, p.version)
+            from Post p left join p.author a
+            where p.id = :id""")
+    Optional<PostDetail> findDetailById(Long id);
+
+    @Query("select new com.example.secureapi.dto.PostVersion(p.version, p.updatedAt) from Post p where p.id = :id")
+    Optional<PostVersion> findVersionById(Long id);
+
+    @Query("""
+            select new com.example.secureapi.dto.PostSummary(p.id, p.title, a.username, p.createdAt, p.updatedAt)
+            from Post p left join p.author a
+            order by p.createdAt desc, p.id desc""")
+    List<PostSummary> findFirstSummaryPage(Limit limit);
+
+    @Query("""
+            select new com.example.secureapi.dto.PostSummary(p.id, p.title, a.username, p.createdAt, p.updatedAt)
+            from Post p left join p.author a
+            where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)
+            order by p.createdAt desc, p.id desc""")
+    List<PostSummary> findSummaryPageAfter(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query("""
+            select new com.example.secureapi.dto.PostDetail(p.id, p.title, p.content, a.id, a.username, p.createdAt, p.updatedAt, p.version)
+            from Post p left join p.author a
+            order by p.createdAt desc, p.id desc""")
+    List<PostDetail> findFirstDetailPage(Limit limit);
+
+    @Query("""
+            select new com.example.secureapi.dto.PostDetail(p.id, p.title, p.content, a.id, a.username, p.createdAt, p.updatedAt, p.version)
+            from Post p left join p.author a
+            where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)
+            order by p.createdAt desc, p.id desc""")
+    List<PostDetail> findDetailPageAfter(LocalDateTime createdAt, Long id, Limit limit);
+}
@@ -0,0 +1,14 @@
+package com.example.secureapi.repository;
+
+import java.util.function.Consumer;
+
+import com.example.secureapi.dto.PostDetail;
+
+public interface PostStreamingRepository {
+
+    /**
+     * Reads every post through a forward-only JDBC cursor, handing rows to {@code consumer} as
+     * they arrive instead of materializing the result.
+     */
+    void streamAll(int fetchSize, Consumer<PostDetail> consumer);
+}
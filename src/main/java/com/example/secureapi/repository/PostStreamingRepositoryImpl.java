@@ -0,0 +1,58 @@
+package com.example.secureapi.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.secureapi.dto.PostDetail;
+
+class PostStreamingRepositoryImpl implements PostStreamingRepository {
+
+    private static final String STREAM_SQL = """
+            select p.id, p.title, p.content, p.author_id, u.username, p.created_at, p.updated_at, p.version
+            from posts p left join users u on u.id = p.author_id
+            order by p.created_at desc, p.id desc""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PostStreamingRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void streamAll(int fetchSize, Consumer<PostDetail> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(STREAM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J only honours a positive fetch size with useCursorFetch, which moves every
+            // statement on the connection to a server-side cursor; MIN_VALUE streams just this one
+            statement.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : fetchSize);
+            return statement;
+        }, resultSet -> {
+            long authorId = resultSet.getLong(4);
+            boolean hasAuthor = !resultSet.wasNull();
+            consumer.accept(new PostDetail(
+                    resultSet.getLong(1),
+                    resultSet.getString(2),
+                    resultSet.getString(3),
+                    hasAuthor ? authorId : null,
+                    resultSet.getString(5),
+                    toLocalDateTime(resultSet.getTimestamp(6)),
+                    toLocalDateTime(resultSet.getTimestamp(7)),
+                    resultSet.getLong(8)));
+        });
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return connection.getMetaData().getURL().startsWith("jdbc:mysql:");
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.secureapi.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.secureapi.model.RefreshToken;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Marks the token used unless another request already did; returns 1 for the single winner.
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :now where t.tokenHash = :tokenHash and t.usedAt is null")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+
+    // walks idx_refresh_tokens_expires_at from the oldest entry
+    @Query("select t.tokenHash from RefreshToken t where t.expiresAt < :now order by t.expiresAt")
+    List<String> findExpiredTokenHashes(@Param("now") Instant now, Limit limit);
+}
@@ -1,5 +1,137 @@
 package com.example.secureapi.security;
 
-public class CustomUserDetailsService {
-    
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.example.secureapi.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Resolves usernames to {@link UserPrincipal} snapshots and, for logins, {@link UserCredentials}
+ * through bounded, TTL'd local caches so that neither authenticating a request nor checking a
+ * password hits the database. Usernames with no account are remembered in a separate negative
+ * cache, so credential-stuffing traffic for made-up names is answered from memory too.
+ * <p>
+ * Changes to a user's role, status or password, and new registrations, must go through
+ * {@link #invalidate}; with {@code security.user-cache.redis-sync} the eviction is also published so
+ * every node drops its copy.
+ */
+@Service
+public class CustomUserDetailsService implements UserDetailsService {
+
+    public static final String CHANNEL = "user-invalidation";
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> cache;
+    private final Cache<String, UserCredentials> credentials;
+    private final Cache<String, Boolean> absent;
+    private final StringRedisTemplate redis;
+    // bumped on every invalidation so a load that raced with one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CustomUserDetailsService(UserRepository userRepository, ObjectProvider<StringRedisTemplate> redisTemplate,
+                                    @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.user-cache.ttl:60s}") Duration ttl,
+                                    @Value("${security.user-cache.redis-sync:false}") boolean redisSync,
+                                    @Value("${security.user-cache.negative.max-size:100000}") long negativeMaxSize,
+                                    @Value("${security.user-cache.negative.ttl:30s}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.credentials = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.absent = Caffeine.newBuilder().maximumSize(Math.max(negativeMaxSize, 0)).expireAfterWrite(negativeTtl)
+                .build();
+        this.redis = redisSync ? redisTemplate.getObject() : null;
+    }
+
+    @Override
+    public UserPrincipal loadUserByUsername(String username) {
+        return findPrincipal(username).orElseThrow(() -> new UsernameNotFoundException(username));
+    }
+
+    /**
+     * The cached snapshot for {@code username}, loading it on a miss.
+     */
+    public Optional<UserPrincipal> findPrincipal(String username) {
+        UserPrincipal cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(username).map(Loaded::principal);
+    }
+
+    /**
+     * The cached login record for {@code username}, loading it on a miss. Empty for usernames with no
+     * account, which are then not looked up again until the negative entry expires or is invalidated.
+     */
+    public Optional<UserCredentials> findCredentials(String username) {
+        UserCredentials cached = credentials.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(username).map(Loaded::credentials);
+    }
+
+    // loaded outside the caches' compute locks so a slow query never pins a virtual thread
+    private Optional<Loaded> load(String username) {
+        if (absent.getIfPresent(username) != null) {
+            return Optional.empty();
+        }
+        long generation = invalidations.get();
+        Optional<Loaded> loaded = userRepository.findByUsername(username)
+                .map(user -> new Loaded(UserPrincipal.of(user), UserCredentials.of(user)));
+        if (loaded.isPresent()) {
+            cache.put(username, loaded.get().principal());
+            credentials.put(username, loaded.get().credentials());
+        } else {
+            absent.put(username, Boolean.TRUE);
+        }
+        if (invalidations.get() != generation) {
+            evictEntries(username);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops {@code username} on this node and, with Redis sync, on every other node.
+     */
+    public void invalidate(String username) {
+        evictLocal(username);
+        if (redis != null) {
+            redis.convertAndSend(CHANNEL, username);
+        }
+    }
+
+    /**
+     * Applies an invalidation published by any node, including this one.
+     */
+    public void evictLocal(String username) {
+        invalidations.incrementAndGet();
+        evictEntries(username);
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public long estimatedAbsentSize() {
+        return absent.estimatedSize();
+    }
+
+    private void evictEntries(String username) {
+        cache.invalidate(username);
+        credentials.invalidate(username);
+        absent.invalidate(username);
+    }
+
+    private record Loaded(UserPrincipal principal, UserCredentials credentials) {
+    }
 }
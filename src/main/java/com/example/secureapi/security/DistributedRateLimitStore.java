@@ -0,0 +1,140 @@
+package com.example.secureapi.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Rate-limit store whose quota is shared by every gateway node through a {@link RateLimitTokenSource}.
+ * Each node leases a small batch of tokens per key and spends it locally, so most requests are
+ * decided without a round trip; rejections are also remembered locally until the next token is due.
+ * When the shared source fails, requests are decided by the {@link FallbackPolicy} and the source is
+ * left alone for a back-off period.
+ */
+public class DistributedRateLimitStore implements RateLimitStore {
+
+    public enum FallbackPolicy {
+        ALLOW,
+        REJECT,
+        LOCAL
+    }
+
+    private final RateLimitTokenSource tokenSource;
+    private final RateLimitStore localStore;
+    private final FallbackPolicy fallbackPolicy;
+    private final long leaseSize;
+    private final long leaseTtlNanos;
+    private final long backoffNanos;
+    private final Cache<String, Lease> leases;
+    private final LongAdder remoteCalls = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile long sourceUnavailableUntil;
+
+    public DistributedRateLimitStore(RateLimitTokenSource tokenSource, RateLimitStore localStore, FallbackPolicy fallbackPolicy,
+            long leaseSize, Duration leaseTtl, Duration backoff, int maxEntries) {
+        this.tokenSource = tokenSource;
+        this.localStore = localStore;
+        this.fallbackPolicy = fallbackPolicy;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.backoffNanos = backoff.toNanos();
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(leaseTtl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Probe tryConsume(String key, long nowNanos) {
+        Lease lease = leases.getIfPresent(key);
+        if (lease != null && nowNanos < lease.expiresAt) {
+            if (lease.tryTake()) {
+                return new Probe(true, lease.tokens.get(), 0);
+            }
+            if (lease.blocked) {
+                return new Probe(false, 0, lease.expiresAt - nowNanos);
+            }
+        }
+        if (nowNanos < sourceUnavailableUntil) {
+            return fallback(key, nowNanos);
+        }
+
+        RateLimitTokenSource.Grant grant;
+        try {
+            remoteCalls.increment();
+            grant = tokenSource.acquire(key, leaseSize);
+        } catch (RuntimeException e) {
+            sourceUnavailableUntil = nowNanos + backoffNanos;
+            return fallback(key, nowNanos);
+        }
+
+        if (grant.granted() <= 0) {
+            long retryAfter = Math.max(1, grant.retryAfterNanos());
+            leases.put(key, new Lease(0, nowNanos + Math.min(retryAfter, leaseTtlNanos), true));
+            return new Probe(false, 0, retryAfter);
+        }
+        long remaining = grant.granted() - 1;
+        leases.put(key, new Lease(remaining, nowNanos + leaseTtlNanos, false));
+        return new Probe(true, remaining, 0);
+    }
+
+    @Override
+    public void evictIdle() {
+        leases.cleanUp();
+        localStore.evictIdle();
+    }
+
+    @Override
+    public int size() {
+        return (int) leases.estimatedSize();
+    }
+
+    @Override
+    public long evictionCount() {
+        return leases.stats().evictionCount() + localStore.evictionCount();
+    }
+
+    public long remoteCallCount() {
+        return remoteCalls.sum();
+    }
+
+    public long fallbackCount() {
+        return fallbacks.sum();
+    }
+
+    private Probe fallback(String key, long nowNanos) {
+        fallbacks.increment();
+        return switch (fallbackPolicy) {
+            case ALLOW -> new Probe(true, 0, 0);
+            case REJECT -> new Probe(false, 0, backoffNanos);
+            case LOCAL -> localStore.tryConsume(key, nowNanos);
+        };
+    }
+
+    private static final class Lease {
+        final AtomicLong tokens;
+        final long expiresAt;
+        final boolean blocked;
+
+        Lease(long tokens, long expiresAt, boolean blocked) {
+            this.tokens = new AtomicLong(tokens);
+            this.expiresAt = expiresAt;
+            this.blocked = blocked;
+        }
+
+        boolean tryTake() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+    }
+}
@@ -1,16 +1,15 @@
 package com.example.secureapi.security;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Optional;
 
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.stereotype.Component;
 
 import com.example.secureapi.util.JwtUtil;
+import com.example.secureapi.util.VerifiedClaims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -21,24 +20,36 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtFilter extends BasicAuthenticationFilter {
 
     private final JwtUtil jwtUtil;
+    private final SecurityMetrics metrics;
+    private final CustomUserDetailsService userDetailsService;
 
-    public JwtFilter(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    public JwtFilter(AuthenticationManager authenticationManager, JwtUtil jwtUtil, SecurityMetrics metrics,
+                     CustomUserDetailsService userDetailsService) {
         super(authenticationManager);
         this.jwtUtil = jwtUtil;
+        this.metrics = metrics;
+        this.userDetailsService = userDetailsService;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         String token = getTokenFromRequest(request);
-        if (token != null && jwtUtil.validateToken(token)) {
-            String username = jwtUtil.getUsernameFromToken(token);
-            var role = jwtUtil.getRoleFromToken(token);
-
-        var authority = new SimpleGrantedAuthority("ROLE_" + role);
-            UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(username, null, List.of(authority)); 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null) {
+            long start = System.nanoTime();
+            Optional<VerifiedClaims> verified = jwtUtil.verify(token);
+            metrics.recordJwtVerification(start);
+            if (verified.isEmpty()) {
+                metrics.invalidToken();
+            } else {
+                // role and status come from the current account, not the claims baked into the token
+                UserPrincipal principal = userDetailsService.findPrincipal(verified.get().subject()).orElse(null);
+                if (principal == null || !principal.enabled()) {
+                    metrics.inactiveAccount();
+                } else {
+                    SecurityContextHolder.getContext().setAuthentication(new PrincipalAuthentication(principal));
+                }
+            }
         }
         chain.doFilter(request, response);
     }
@@ -0,0 +1,49 @@
+package com.example.secureapi.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Immutable, already-authenticated {@link Authentication} for a bearer-token request. Unlike
+ * {@code UsernamePasswordAuthenticationToken} it does not copy the authority list, so the shared
+ * per-role list of {@link UserPrincipal} is used as is.
+ */
+public record PrincipalAuthentication(UserPrincipal principal) implements Authentication {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return principal.getAuthorities();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public UserPrincipal getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        throw new IllegalArgumentException("PrincipalAuthentication is immutable");
+    }
+
+    @Override
+    public String getName() {
+        return principal.username();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.secureapi.security;
+
+import java.time.Duration;
+
+/**
+ * One limit of a rate-limit bucket: up to {@code capacity} requests in a burst, refilled at
+ * {@code refillTokens} per {@code refillPeriod}.
+ */
+public record RateLimitBandwidth(long capacity, long refillTokens, Duration refillPeriod) {
+
+    public RateLimitBandwidth {
+        if (capacity <= 0 || refillTokens <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Rate limit capacity, refill tokens and refill period must be positive");
+        }
+    }
+
+    public static RateLimitBandwidth of(long capacity, Duration refillPeriod) {
+        return new RateLimitBandwidth(capacity, capacity, refillPeriod);
+    }
+
+    /**
+     * Nanoseconds needed to refill a single token.
+     */
+    public long emissionIntervalNanos() {
+        return Math.max(1, refillPeriod.toNanos() / refillTokens);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.secureapi.security;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size, lock-striped table of rate-limit buckets. A bucket is stored as primitive GCRA
+ * state (one theoretical arrival time per bandwidth) next to a 64-bit key hash instead of a
+ * bucket4j {@code Bucket}, so the table never grows past {@code maxEntries} slots.
+ * <p>
+ * A bucket whose arrival times have all passed is full again and therefore idle: it carries no
+ * information and its slot can be reclaimed at any time. New keys reuse such slots first and
+ * only evict the fullest bucket in their probe window when none are idle.
+ */
+public class RateLimitBucketStore implements RateLimitStore {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int PROBE_LIMIT = 8;
+    private static final long EMPTY = 0L;
+
+    private final long[] emissionIntervals;
+    private final long[] tolerances;
+    private final int width;
+    private final Segment[] segments;
+    private final long hashSeed = ThreadLocalRandom.current().nextLong();
+    private final LongAdder evictions = new LongAdder();
+
+    public RateLimitBucketStore(List<RateLimitBandwidth> bandwidths, int maxEntries) {
+        if (bandwidths.isEmpty()) {
+            throw new IllegalArgumentException("At least one bandwidth is required");
+        }
+        this.width = bandwidths.size();
+        this.emissionIntervals = new long[width];
+        this.tolerances = new long[width];
+        for (int i = 0; i < width; i++) {
+            RateLimitBandwidth bandwidth = bandwidths.get(i);
+            emissionIntervals[i] = bandwidth.emissionIntervalNanos();
+            tolerances[i] = Math.multiplyExact(bandwidth.capacity(), emissionIntervals[i]);
+        }
+        int slotsPerSegment = Integer.highestOneBit(Math.max(PROBE_LIMIT, maxEntries / SEGMENT_COUNT));
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(slotsPerSegment, width);
+        }
+    }
+
+    @Override
+    public Probe tryConsume(String key, long nowNanos) {
+        long hash = hash(key);
+        Segment segment = segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hash);
+            if (slot < 0) {
+                slot = segment.claim(hash, nowNanos);
+            }
+            return consume(segment.tats, slot * width, nowNanos);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Clears every bucket that has fully refilled. Such buckets behave exactly like a new one, so
+     * removing them never hands a client extra tokens.
+     */
+    @Override
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    public void evictIdle(long nowNanos) {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                for (int slot = 0; slot < segment.keys.length; slot++) {
+                    if (segment.keys[slot] != EMPTY && segment.isIdle(slot, nowNanos)) {
+                        segment.keys[slot] = EMPTY;
+                        segment.size--;
+                        evictions.increment();
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return segments.length * segments[0].keys.length;
+    }
+
+    @Override
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Probe consume(long[] tats, int offset, long nowNanos) {
+        long remaining = Long.MAX_VALUE;
+        long retryAfter = 0;
+        for (int i = 0; i < width; i++) {
+            long nextTat = Math.max(tats[offset + i], nowNanos) + emissionIntervals[i];
+            long backlog = nextTat - nowNanos;
+            if (backlog > tolerances[i]) {
+                retryAfter = Math.max(retryAfter, backlog - tolerances[i]);
+            } else {
+                remaining = Math.min(remaining, (tolerances[i] - backlog) / emissionIntervals[i]);
+            }
+        }
+        if (retryAfter > 0) {
+            return new Probe(false, 0, retryAfter);
+        }
+        for (int i = 0; i < width; i++) {
+            tats[offset + i] = Math.max(tats[offset + i], nowNanos) + emissionIntervals[i];
+        }
+        return new Probe(true, remaining, 0);
+    }
+
+    private long hash(String key) {
+        long h = hashSeed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+
+    private final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final long[] keys;
+        final long[] tats;
+        final int mask;
+        volatile int size;
+
+        Segment(int slots, int width) {
+            this.keys = new long[slots];
+            this.tats = new long[slots * width];
+            this.mask = slots - 1;
+        }
+
+        int find(long hash) {
+            int start = (int) hash & mask;
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int slot = (start + i) & mask;
+                if (keys[slot] == hash) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        int claim(long hash, long nowNanos) {
+            int start = (int) hash & mask;
+            int victim = -1;
+            long victimBacklog = Long.MAX_VALUE;
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int slot = (start + i) & mask;
+                if (keys[slot] == EMPTY) {
+                    size++;
+                    return reset(slot, hash, nowNanos);
+                }
+                long backlog = backlog(slot, nowNanos);
+                if (backlog < victimBacklog) {
+                    victim = slot;
+                    victimBacklog = backlog;
+                }
+            }
+            evictions.increment();
+            return reset(victim, hash, nowNanos);
+        }
+
+        boolean isIdle(int slot, long nowNanos) {
+            return backlog(slot, nowNanos) <= 0;
+        }
+
+        private long backlog(int slot, long nowNanos) {
+            long backlog = Long.MIN_VALUE;
+            for (int i = 0; i < width; i++) {
+                backlog = Math.max(backlog, tats[slot * width + i] - nowNanos);
+            }
+            return backlog;
+        }
+
+        private int reset(int slot, long hash, long nowNanos) {
+            keys[slot] = hash;
+            for (int i = 0; i < width; i++) {
+                tats[slot * width + i] = nowNanos;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.secureapi.security;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A compiled rate-limit policy: which requests it applies to, what the bucket is keyed on and
+ * the store holding its buckets.
+ */
+public final class RateLimitPolicy {
+
+    public static final String ANONYMOUS = "ANONYMOUS";
+
+    public enum KeyType {
+        IP,
+        USER,
+        ROLE,
+        ROUTE
+    }
+
+    private final String name;
+    private final RoutePattern[] routes;
+    private final String[] methods;
+    private final String[] roleAuthorities;
+    private final boolean matchesAnonymous;
+    private final KeyType keyType;
+    private final RateLimitStore store;
+    private final String limitHeader;
+
+    public RateLimitPolicy(String name, List<String> routes, List<String> methods, Set<String> roles, KeyType keyType,
+            List<RateLimitBandwidth> bandwidths, RateLimitStore store) {
+        this.name = name;
+        this.routes = routes.stream().map(RoutePattern::compile).toArray(RoutePattern[]::new);
+        this.methods = methods.stream().map(String::toUpperCase).toArray(String[]::new);
+        this.roleAuthorities = roles.stream()
+                .filter(role -> !ANONYMOUS.equalsIgnoreCase(role))
+                .map(role -> "ROLE_" + role.toUpperCase())
+                .toArray(String[]::new);
+        this.matchesAnonymous = roles.isEmpty() || roles.stream().anyMatch(ANONYMOUS::equalsIgnoreCase);
+        this.keyType = keyType;
+        this.store = store;
+        this.limitHeader = Long.toString(bandwidths.stream().mapToLong(RateLimitBandwidth::capacity).min().orElseThrow());
+    }
+
+    /**
+     * @param roleAuthority the caller's {@code ROLE_*} authority, or {@code null} when anonymous
+     */
+    public boolean matches(String path, String method, String roleAuthority) {
+        if (roleAuthority == null) {
+            if (!matchesAnonymous) {
+                return false;
+            }
+        } else if (roleAuthorities.length > 0 && !contains(roleAuthorities, roleAuthority)) {
+            return false;
+        }
+        if (methods.length > 0 && !contains(methods, method)) {
+            return false;
+        }
+        if (routes.length == 0) {
+            return true;
+        }
+        for (RoutePattern route : routes) {
+            if (route.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String bucketKey(String clientIp, String subject, String roleAuthority) {
+        return switch (keyType) {
+            case IP -> clientIp;
+            case USER -> subject != null ? subject : "ip:" + clientIp;
+            case ROLE -> roleAuthority != null ? roleAuthority : ANONYMOUS;
+            case ROUTE -> name;
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RateLimitStore getStore() {
+        return store;
+    }
+
+    public String getLimitHeader() {
+        return limitHeader;
+    }
+
+    private static boolean contains(String[] values, String value) {
+        for (String candidate : values) {
+            if (candidate.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
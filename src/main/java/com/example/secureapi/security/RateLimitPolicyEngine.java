@@ -0,0 +1,28 @@
+package com.example.secureapi.security;
+
+import java.util.List;
+
+/**
+ * Ordered list of compiled policies; the first one matching a request decides its limit.
+ */
+public class RateLimitPolicyEngine {
+
+    private final RateLimitPolicy[] policies;
+
+    public RateLimitPolicyEngine(List<RateLimitPolicy> policies) {
+        this.policies = policies.toArray(RateLimitPolicy[]::new);
+    }
+
+    public RateLimitPolicy match(String path, String method, String roleAuthority) {
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(path, method, roleAuthority)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    public List<RateLimitPolicy> getPolicies() {
+        return List.of(policies);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.secureapi.security;
+
+/**
+ * Holds rate-limit buckets keyed by client and decides whether a request may proceed.
+ */
+public interface RateLimitStore {
+
+    default Probe tryConsume(String key) {
+        return tryConsume(key, System.nanoTime());
+    }
+
+    /**
+     * Decides against {@code nowNanos}, a {@link System#nanoTime()} reading.
+     */
+    Probe tryConsume(String key, long nowNanos);
+
+    /**
+     * Releases state for buckets that have fully refilled.
+     */
+    void evictIdle();
+
+    int size();
+
+    long evictionCount();
+
+    /**
+     * Outcome of a consumption attempt; {@code retryAfterNanos} is zero when the request was allowed.
+     */
+    record Probe(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+}
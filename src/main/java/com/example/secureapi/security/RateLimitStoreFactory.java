@@ -0,0 +1,13 @@
+package com.example.secureapi.security;
+
+import java.util.List;
+
+/**
+ * Creates the bucket store backing one named rate limit, local or distributed depending on
+ * {@code security.rate-limit.mode}.
+ */
+@FunctionalInterface
+public interface RateLimitStoreFactory {
+
+    RateLimitStore create(String name, List<RateLimitBandwidth> bandwidths);
+}
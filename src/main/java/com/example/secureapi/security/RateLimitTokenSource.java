@@ -0,0 +1,17 @@
+package com.example.secureapi.security;
+
+/**
+ * Shared token pool consulted by {@link DistributedRateLimitStore} when a node runs out of
+ * locally leased tokens.
+ */
+public interface RateLimitTokenSource {
+
+    /**
+     * Atomically takes up to {@code requested} tokens for {@code key}. When none are available
+     * the grant is empty and carries the time until the next token.
+     */
+    Grant acquire(String key, long requested);
+
+    record Grant(long granted, long retryAfterNanos) {
+    }
+}
@@ -1,40 +1,107 @@
 package com.example.secureapi.security;
 
-import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.example.secureapi.audit.AuditEventType;
+import com.example.secureapi.audit.AuditLog;
+
+import io.micrometer.core.instrument.Counter;
+
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Component
 public class RateLimitingFilter implements Filter {
-    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimitPolicyEngine policyEngine;
+    private final SecurityMetrics metrics;
+    private final AuditLog auditLog;
+    private final Map<RateLimitPolicy, Counter> rejections = new IdentityHashMap<>();
 
-    private Bucket createBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(10, Refill.intervally(10, Duration.ofMinutes(1))))
-                .build();
+    public RateLimitingFilter(RateLimitPolicyEngine policyEngine, SecurityMetrics metrics, AuditLog auditLog) {
+        this.policyEngine = policyEngine;
+        this.metrics = metrics;
+        this.auditLog = auditLog;
+        for (RateLimitPolicy policy : policyEngine.getPolicies()) {
+            rejections.put(policy, metrics.rateLimitRejections(policy));
+        }
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws java.io.IOException, jakarta.servlet.ServletException {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
-        String clientIp = httpRequest.getRemoteAddr();
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
 
-        Bucket bucket = buckets.computeIfAbsent(clientIp, k -> createBucket());
-        if (bucket.tryConsume(1)) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        String roleAuthority = authenticated ? roleAuthority(authentication) : null;
+        String subject = authenticated ? authentication.getName() : null;
+
+        long start = System.nanoTime();
+        RateLimitPolicy policy = policyEngine.match(path(httpRequest), httpRequest.getMethod(), roleAuthority);
+        if (policy == null) {
+            metrics.recordRateLimitCheck(start);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = policy.bucketKey(httpRequest.getRemoteAddr(), subject, roleAuthority);
+        RateLimitStore.Probe probe = policy.getStore().tryConsume(key);
+        metrics.recordRateLimitCheck(start);
+        httpResponse.setHeader("X-RateLimit-Limit", policy.getLimitHeader());
+        httpResponse.setHeader("X-RateLimit-Remaining", Long.toString(probe.remaining()));
+        if (probe.allowed()) {
             chain.doFilter(request, response);
         } else {
+            rejections.get(policy).increment();
+            auditLog.record(AuditEventType.RATE_LIMITED, subject, httpRequest.getRemoteAddr(), policy.getName());
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.retryAfterNanos() + 999_999_999L));
+            httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            httpResponse.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+            httpResponse.setContentType("text/plain");
             response.getWriter().write("Rate limit exceeded. Try again later.");
             response.getWriter().flush();
         }
     }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.idle-sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        for (RateLimitPolicy policy : policyEngine.getPolicies()) {
+            policy.getStore().evictIdle();
+        }
+    }
+
+    public RateLimitPolicyEngine getPolicyEngine() {
+        return policyEngine;
+    }
+
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+
+    private static String roleAuthority(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String value = authority.getAuthority();
+            if (value != null && value.startsWith("ROLE_")) {
+                return value;
+            }
+        }
+        return null;
+    }
 }
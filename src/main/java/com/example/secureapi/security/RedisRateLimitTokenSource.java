@@ -0,0 +1,89 @@
+package com.example.secureapi.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Keeps the GCRA arrival time of every bandwidth in Redis and leases tokens out of it with a
+ * single Lua call, using the Redis clock so all gateway nodes agree on time. Keys expire once the
+ * bucket has fully refilled.
+ * <p>
+ * The script answers with one integer: the number of tokens granted, or, when none could be, the
+ * negated microseconds until the next one.
+ */
+public class RedisRateLimitTokenSource implements RateLimitTokenSource {
+
+    private static final String ACQUIRE_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local granted = tonumber(ARGV[1])
+            local retry = 0
+            local tats = {}
+            for i = 1, #KEYS do
+                local interval = tonumber(ARGV[2 * i])
+                local tolerance = tonumber(ARGV[2 * i + 1])
+                local tat = tonumber(redis.call('GET', KEYS[i]) or now)
+                if tat < now then tat = now end
+                tats[i] = tat
+                local available = math.floor((tolerance - (tat - now)) / interval)
+                if available < granted then granted = available end
+                if available < 1 then
+                    local wait = tat + interval - tolerance - now
+                    if wait > retry then retry = wait end
+                end
+            end
+            if granted < 1 then
+                return -math.max(retry, 1)
+            end
+            for i = 1, #KEYS do
+                local tat = tats[i] + granted * tonumber(ARGV[2 * i])
+                redis.call('SET', KEYS[i], string.format('%.0f', tat), 'PX', math.ceil((tat - now) / 1000))
+            end
+            return granted
+            """;
+
+    private static final RedisScript<Long> SCRIPT = new DefaultRedisScript<>(ACQUIRE_SCRIPT, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final int width;
+    private final String[] intervalAndToleranceMicros;
+
+    public RedisRateLimitTokenSource(StringRedisTemplate redisTemplate, String keyPrefix, List<RateLimitBandwidth> bandwidths) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.width = bandwidths.size();
+        this.intervalAndToleranceMicros = new String[width * 2];
+        for (int i = 0; i < width; i++) {
+            RateLimitBandwidth bandwidth = bandwidths.get(i);
+            long intervalMicros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(bandwidth.emissionIntervalNanos()));
+            intervalAndToleranceMicros[2 * i] = Long.toString(intervalMicros);
+            intervalAndToleranceMicros[2 * i + 1] = Long.toString(intervalMicros * bandwidth.capacity());
+        }
+    }
+
+    @Override
+    public Grant acquire(String key, long requested) {
+        List<String> keys = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            // hash tag keeps every bandwidth of one bucket in the same cluster slot
+            keys.add(keyPrefix + ":{" + key + "}:" + i);
+        }
+        Object[] args = new Object[1 + intervalAndToleranceMicros.length];
+        args[0] = Long.toString(requested);
+        System.arraycopy(intervalAndToleranceMicros, 0, args, 1, intervalAndToleranceMicros.length);
+
+        Long result = redisTemplate.execute(SCRIPT, keys, args);
+        if (result == null) {
+            throw new IllegalStateException("Rate limit script returned no result");
+        }
+        return result > 0
+                ? new Grant(result, 0)
+                : new Grant(0, TimeUnit.MICROSECONDS.toNanos(-result));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.secureapi.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Path pattern compiled once into literal, {@code *} (one segment) and trailing {@code **}
+ * (any remainder) segments, matched by walking the request path in place without allocating.
+ */
+public final class RoutePattern {
+
+    private static final String ANY_SEGMENT = "*";
+    private static final String ANY_REMAINDER = "**";
+
+    private final String pattern;
+    private final String[] segments;
+
+    private RoutePattern(String pattern, String[] segments) {
+        this.pattern = pattern;
+        this.segments = segments;
+    }
+
+    public static RoutePattern compile(String pattern) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (!segments.isEmpty() && ANY_REMAINDER.equals(segments.get(segments.size() - 1))) {
+                throw new IllegalArgumentException("'**' is only supported at the end of a route pattern: " + pattern);
+            }
+            segments.add(segment);
+        }
+        return new RoutePattern(pattern, segments.toArray(String[]::new));
+    }
+
+    public boolean matches(String path) {
+        int pos = 0;
+        int length = path.length();
+        for (String segment : segments) {
+            if (segment.equals(ANY_REMAINDER)) {
+                return true;
+            }
+            if (pos >= length || path.charAt(pos) != '/') {
+                return false;
+            }
+            int start = pos + 1;
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (segment.equals(ANY_SEGMENT)) {
+                if (end == start) {
+                    return false;
+                }
+            } else if (end - start != segment.length() || !path.regionMatches(start, segment, 0, segment.length())) {
+                return false;
+            }
+            pos = end;
+        }
+        return pos == length || (pos == length - 1 && path.charAt(pos) == '/');
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.secureapi.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for the authentication and rate-limiting stages of a request. Every meter and tag
+ * combination is registered up front, so the request path only reads {@link System#nanoTime()}
+ * and records into a fixed histogram.
+ */
+@Component
+public class SecurityMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer jwtVerification;
+    private final Timer passwordVerification;
+    private final Timer rateLimitCheck;
+    private final Counter invalidToken;
+    private final Counter badCredentials;
+    private final Counter invalidRefreshToken;
+    private final Counter refreshTokenReuse;
+    private final Counter inactiveAccount;
+
+    public SecurityMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.jwtVerification = timer("auth.jwt.verification", "Access token signature, claims and revocation check",
+                Duration.ofNanos(500), Duration.ofMillis(100));
+        this.passwordVerification = timer("auth.password.verification",
+                "Password check on login, including time queued for the hashing pool",
+                Duration.ofMillis(1), Duration.ofSeconds(5));
+        this.rateLimitCheck = timer("ratelimit.check", "Policy match and bucket consumption",
+                Duration.ofNanos(500), Duration.ofMillis(100));
+        this.invalidToken = authFailure("invalid_token");
+        this.badCredentials = authFailure("bad_credentials");
+        this.invalidRefreshToken = authFailure("invalid_refresh_token");
+        this.refreshTokenReuse = authFailure("refresh_token_reuse");
+        this.inactiveAccount = authFailure("inactive_account");
+    }
+
+    public void recordJwtVerification(long startNanos) {
+        jwtVerification.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordVerification(long startNanos) {
+        passwordVerification.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRateLimitCheck(long startNanos) {
+        rateLimitCheck.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void invalidToken() {
+        invalidToken.increment();
+    }
+
+    public void badCredentials() {
+        badCredentials.increment();
+    }
+
+    public void invalidRefreshToken() {
+        invalidRefreshToken.increment();
+    }
+
+    public void refreshTokenReuse() {
+        refreshTokenReuse.increment();
+    }
+
+    public void inactiveAccount() {
+        inactiveAccount.increment();
+    }
+
+    /**
+     * Rejection counter for one policy; callers look it up once per policy, not per request.
+     */
+    public Counter rateLimitRejections(RateLimitPolicy policy) {
+        return Counter.builder("ratelimit.rejections")
+                .tag("policy", policy.getName())
+                .description("Requests answered with 429")
+                .register(registry);
+    }
+
+    private Timer timer(String name, String description, Duration min, Duration max) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(min)
+                .maximumExpectedValue(max)
+                .register(registry);
+    }
+
+    private Counter authFailure(String reason) {
+        return Counter.builder("auth.failures")
+                .tag("reason", reason)
+                .description("Rejected credentials by reason")
+                .register(registry);
+    }
+}
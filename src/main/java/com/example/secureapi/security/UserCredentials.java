@@ -0,0 +1,19 @@
+package com.example.secureapi.security;
+
+import com.example.secureapi.model.User;
+
+/**
+ * What a login needs from the account row: the stored hash plus the fields the issued tokens carry.
+ */
+public record UserCredentials(Long id, String username, String passwordHash, User.Role role, boolean enabled) {
+
+    public static UserCredentials of(User user) {
+        return new UserCredentials(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                user.isEnabled());
+    }
+
+    @Override
+    public String toString() {
+        return "UserCredentials[id=" + id + ", username=" + username + ", role=" + role + ", enabled=" + enabled + "]";
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.secureapi.security;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.secureapi.model.User;
+
+/**
+ * Immutable snapshot of a user's identity and authorization state, safe to cache and share between
+ * requests. Carries no credentials: the password hash is cached separately as {@link UserCredentials}
+ * and only read on login.
+ */
+public record UserPrincipal(Long id, String username, User.Role role, boolean enabled) implements UserDetails {
+
+    private static final Map<User.Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(User.Role.class);
+
+    static {
+        for (User.Role role : User.Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getRole(), user.isEnabled());
+    }
+
+    /**
+     * The shared, unmodifiable authority list for {@code role}.
+     */
+    public static List<GrantedAuthority> authorities(User.Role role) {
+        return AUTHORITIES.get(role);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities(role);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
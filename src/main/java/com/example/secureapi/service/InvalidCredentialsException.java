@@ -0,0 +1,12 @@
+package com.example.secureapi.service;
+
+/**
+ * Thrown for a failed login, whatever the reason. Failed logins are routine under credential
+ * stuffing, so the exception skips capturing a stack trace.
+ */
+public class InvalidCredentialsException extends RuntimeException {
+
+    public InvalidCredentialsException() {
+        super("Invalid credentials", null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.secureapi.service;
+
+/**
+ * Thrown for a request the client can fix, such as a malformed cursor. The message is returned to
+ * the client as is, so it must not carry internal detail.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
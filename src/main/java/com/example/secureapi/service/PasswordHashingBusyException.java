@@ -0,0 +1,11 @@
+package com.example.secureapi.service;
+
+/**
+ * Thrown when the password hashing queue is full and the request should be retried later.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Password hashing capacity exhausted");
+    }
+}
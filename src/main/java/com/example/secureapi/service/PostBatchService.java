@@ -0,0 +1,283 @@
+package com.example.secureapi.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.secureapi.config.CacheConfig;
+import com.example.secureapi.dto.BulkItemResult;
+import com.example.secureapi.dto.PostUpdateItem;
+import com.example.secureapi.model.Post;
+import com.example.secureapi.repository.PostRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk post writes. The request body (a JSON array) is read item by item and persisted in
+ * chunks of {@code posts.batch.chunk-size}, each in its own transaction so Hibernate can send the
+ * statements as JDBC batches. Per-item results are streamed back as NDJSON after every chunk.
+ * If a chunk fails as a whole, its items are retried one by one to find the offending rows.
+ */
+@Service
+public class PostBatchService {
+    static final String WRITE_FAILED = "Item could not be written";
+
+    private static final Logger log = LoggerFactory.getLogger(PostBatchService.class);
+
+    private final PostRepository postRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+
+    @Value("${posts.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public PostBatchService(PostRepository postRepository, ObjectMapper objectMapper, Validator validator,
+            TransactionTemplate transactionTemplate, EntityManager entityManager, CacheManager cacheManager) {
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.cacheManager = cacheManager;
+    }
+
+    public void createAll(InputStream in, OutputStream out) throws IOException {
+        process(in, out, Post.class, this::createChunk);
+    }
+
+    public void updateAll(InputStream in, OutputStream out) throws IOException {
+        process(in, out, PostUpdateItem.class, this::updateChunk);
+    }
+
+    /**
+     * Deletes the posts listed in the request body, passing each deleted id to {@code onDeleted}
+     * once its chunk has committed.
+     */
+    public void deleteAll(InputStream in, OutputStream out, Consumer<Long> onDeleted) throws IOException {
+        process(in, out, Long.class, (ids, offset) -> deleteChunk(ids, offset, onDeleted));
+    }
+
+    private <T> void process(InputStream in, OutputStream out, Class<T> itemType,
+            BiFunction<List<T>, Integer, BulkItemResult[]> chunkHandler) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidRequestException("Request body must be a JSON array");
+            }
+            List<T> chunk = new ArrayList<>(chunkSize);
+            int chunkStart = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new InvalidRequestException("Unterminated JSON array");
+                }
+                chunk.add(objectMapper.readValue(parser, itemType));
+                if (chunk.size() == chunkSize) {
+                    writeResults(generator, chunkHandler.apply(chunk, chunkStart));
+                    chunkStart += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeResults(generator, chunkHandler.apply(chunk, chunkStart));
+            }
+        }
+    }
+
+    private BulkItemResult[] createChunk(List<Post> posts, int offset) {
+        BulkItemResult[] results = new BulkItemResult[posts.size()];
+        List<Integer> valid = validate(posts, offset, results, post -> null);
+        List<Post> toSave = valid.stream().map(posts::get).toList();
+        // saveAll merges an item that carries an id, overwriting that existing post
+        for (Post post : toSave) {
+            post.setId(null);
+            post.setVersion(null);
+        }
+        try {
+            inChunkTransaction(() -> postRepository.saveAll(toSave));
+            for (int i : valid) {
+                results[i] = BulkItemResult.of(offset + i, posts.get(i).getId(), BulkItemResult.Status.CREATED);
+            }
+        } catch (RuntimeException e) {
+            for (int i : valid) {
+                Post post = posts.get(i);
+                // the rolled-back saveAll left both assigned
+                post.setId(null);
+                post.setVersion(null);
+                results[i] = retryItem(offset + i, null, () -> postRepository.save(post), post::getId,
+                        BulkItemResult.Status.CREATED);
+            }
+        }
+        evictListCache();
+        return results;
+    }
+
+    private BulkItemResult[] updateChunk(List<PostUpdateItem> items, int offset) {
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Integer> valid = validate(items, offset, results, PostUpdateItem::getId);
+        try {
+            inChunkTransaction(() -> {
+                Map<Long, Post> existing = postRepository.findAllById(valid.stream().map(i -> items.get(i).getId()).toList())
+                        .stream().collect(Collectors.toMap(Post::getId, Function.identity()));
+                for (int i : valid) {
+                    PostUpdateItem item = items.get(i);
+                    Post post = existing.get(item.getId());
+                    if (post == null) {
+                        results[i] = BulkItemResult.of(offset + i, item.getId(), BulkItemResult.Status.NOT_FOUND);
+                    } else {
+                        post.setTitle(item.getTitle());
+                        post.setContent(item.getContent());
+                        results[i] = BulkItemResult.of(offset + i, item.getId(), BulkItemResult.Status.UPDATED);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            for (int i : valid) {
+                PostUpdateItem item = items.get(i);
+                results[i] = retryItem(offset + i, item.getId(), () -> postRepository.findById(item.getId()).ifPresentOrElse(post -> {
+                    post.setTitle(item.getTitle());
+                    post.setContent(item.getContent());
+                }, () -> {
+                    throw new EntityNotFoundException();
+                }), item::getId, BulkItemResult.Status.UPDATED);
+            }
+        }
+        evictPosts(items.stream().map(PostUpdateItem::getId).filter(Objects::nonNull).toList());
+        return results;
+    }
+
+    private BulkItemResult[] deleteChunk(List<Long> ids, int offset, Consumer<Long> onDeleted) {
+        BulkItemResult[] results = new BulkItemResult[ids.size()];
+        Set<Long> requested = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = BulkItemResult.failed(offset + i, null, "Id is required");
+            } else {
+                requested.add(ids.get(i));
+            }
+        }
+        Set<Long> deleted = new HashSet<>();
+        inChunkTransaction(() -> {
+            deleted.addAll(postRepository.findExistingIds(requested));
+            postRepository.deleteAllByIdInBatch(deleted);
+        });
+        for (int i = 0; i < ids.size(); i++) {
+            if (results[i] == null) {
+                BulkItemResult.Status status = deleted.contains(ids.get(i))
+                        ? BulkItemResult.Status.DELETED
+                        : BulkItemResult.Status.NOT_FOUND;
+                results[i] = BulkItemResult.of(offset + i, ids.get(i), status);
+            }
+        }
+        evictPosts(deleted);
+        deleted.forEach(onDeleted);
+        return results;
+    }
+
+    private <T> List<Integer> validate(List<T> items, int offset, BulkItemResult[] results, Function<T, Long> id) {
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item == null) {
+                results[i] = BulkItemResult.failed(offset + i, null, "Item must not be null");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(item);
+            if (violations.isEmpty()) {
+                valid.add(i);
+            } else {
+                String error = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+                results[i] = BulkItemResult.failed(offset + i, id.apply(item), error);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * The exception is only logged: its message can carry SQL and constraint names, so the client
+     * gets {@link #WRITE_FAILED} instead.
+     */
+    private BulkItemResult retryItem(int index, Long id, Runnable write, Supplier<Long> resultId,
+            BulkItemResult.Status status) {
+        try {
+            inChunkTransaction(write);
+            return BulkItemResult.of(index, resultId.get(), status);
+        } catch (EntityNotFoundException | JpaObjectRetrievalFailureException e) {
+            // deleted since the chunk was read
+            return BulkItemResult.of(index, id, BulkItemResult.Status.NOT_FOUND);
+        } catch (RuntimeException e) {
+            log.warn("Bulk item {} (id {}) failed", index, id, e);
+            return BulkItemResult.failed(index, id, WRITE_FAILED);
+        }
+    }
+
+    private void inChunkTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> {
+            work.run();
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void writeResults(JsonGenerator generator, BulkItemResult[] results) throws IOException {
+        for (BulkItemResult result : results) {
+            objectMapper.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private void evictPosts(Iterable<Long> ids) {
+        Cache postCache = cacheManager.getCache(CacheConfig.POST_CACHE);
+        Cache versionCache = cacheManager.getCache(CacheConfig.POST_VERSION_CACHE);
+        for (Long id : ids) {
+            if (postCache != null) {
+                postCache.evict(id);
+            }
+            if (versionCache != null) {
+                versionCache.evict(id);
+            }
+        }
+        evictListCache();
+    }
+
+    private void evictListCache() {
+        for (String name : List.of(CacheConfig.POST_LIST_CACHE, CacheConfig.POST_DETAIL_LIST_CACHE)) {
+            Cache listCache = cacheManager.getCache(name);
+            if (listCache != null) {
+                listCache.clear();
+            }
+        }
+    }
+}
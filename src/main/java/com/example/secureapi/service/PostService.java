@@ -1,35 +1,192 @@
 package com.example.secureapi.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.secureapi.config.CacheConfig;
+import com.example.secureapi.dto.PostCursor;
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.dto.PostPage;
+import com.example.secureapi.dto.PostSummary;
+import com.example.secureapi.dto.PostVersion;
 import com.example.secureapi.model.Post;
 import com.example.secureapi.repository.PostRepository;
+import com.example.secureapi.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class PostService {
+    private static final int EXPORT_FLUSH_ROWS = 100;
+
     private final PostRepository postRepository;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<Long, PostDetail> postLookups;
+
+    @Value("${posts.page.max-size:100}")
+    private int maxPageSize;
 
-    public PostService(PostRepository postRepository) {
+    @Value("${posts.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    public PostService(PostRepository postRepository, ObjectMapper objectMapper,
+                       SingleFlight<Long, PostDetail> postLookups) {
         this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.postLookups = postLookups;
+    }
+
+    @Caching(
+        put = @CachePut(cacheNames = CacheConfig.POST_CACHE, key = "#result.id()"),
+        evict = @CacheEvict(cacheNames = {CacheConfig.POST_LIST_CACHE, CacheConfig.POST_DETAIL_LIST_CACHE}, allEntries = true))
+    @Transactional
+    public PostDetail createPost(Post post) {
+        return PostDetail.from(postRepository.save(post));
     }
 
-    public Post createPost(Post post) {
-        return postRepository.save(post);
+    /**
+     * Concurrent misses for the same post share one query through {@link SingleFlight} rather than
+     * the cache's {@code sync} lock, so a caller stops waiting after the lookup timeout instead of
+     * queueing behind a slow query for as long as it takes.
+     */
+    @Cacheable(cacheNames = CacheConfig.POST_CACHE, key = "#id")
+    public PostDetail getPost(Long id) {
+        return postLookups.load(id, () -> postRepository.findDetailById(id)
+            .orElseThrow(() -> new RuntimeException("Post not found")));
     }
 
-    public Post getPost(Long id) {
-        return postRepository.findById(id)
+    /**
+     * Version and modification time of a post, read without its content and cached separately so
+     * that a client revalidating an unchanged post costs neither a query nor serialization.
+     */
+    @Cacheable(cacheNames = CacheConfig.POST_VERSION_CACHE, key = "#id", sync = true)
+    public PostVersion getPostVersion(Long id) {
+        return postRepository.findVersionById(id)
             .orElseThrow(() -> new RuntimeException("Post not found"));
     }
 
-    public Post updatePost(Long id, Post updatedPost) {
-        Post post = getPost(id);
+    /**
+     * Returns the page of post summaries following {@code cursor} (newest first), seeking on the
+     * {@code (created_at, id)} index instead of using an offset.
+     */
+    @Cacheable(cacheNames = CacheConfig.POST_LIST_CACHE, key = "'summary:' + (#cursor ?: '') + ':' + #limit", sync = true)
+    public PostPage<PostSummary> getPostSummaries(String cursor, int limit) {
+        Limit pageSize = Limit.of(pageSize(limit));
+        List<PostSummary> posts;
+        if (cursor == null || cursor.isEmpty()) {
+            posts = postRepository.findFirstSummaryPage(pageSize);
+        } else {
+            PostCursor position = decode(cursor);
+            posts = postRepository.findSummaryPageAfter(position.createdAt(), position.id(), pageSize);
+        }
+        return page(posts, pageSize, PostSummary::createdAt, PostSummary::id);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.POST_DETAIL_LIST_CACHE, key = "'full:' + (#cursor ?: '') + ':' + #limit", sync = true)
+    public PostPage<PostDetail> getPostDetails(String cursor, int limit) {
+        Limit pageSize = Limit.of(pageSize(limit));
+        List<PostDetail> posts;
+        if (cursor == null || cursor.isEmpty()) {
+            posts = postRepository.findFirstDetailPage(pageSize);
+        } else {
+            PostCursor position = decode(cursor);
+            posts = postRepository.findDetailPageAfter(position.createdAt(), position.id(), pageSize);
+        }
+        return page(posts, pageSize, PostDetail::createdAt, PostDetail::id);
+    }
+
+    /**
+     * Writes every post as newline-delimited JSON while rows are read from the database cursor.
+     */
+    public void exportPosts(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            int[] rows = new int[1];
+            postRepository.streamAll(exportFetchSize, row -> {
+                try {
+                    objectMapper.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                    if (++rows[0] % EXPORT_FLUSH_ROWS == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Updates a post if its current version satisfies {@code expectedVersion}, typically the
+     * request's {@code If-Match}. A writer that commits in between is caught by the version check in
+     * the update itself; both cases throw {@link OptimisticLockingFailureException}.
+     */
+    @Caching(
+        put = @CachePut(cacheNames = CacheConfig.POST_CACHE, key = "#id"),
+        evict = {
+            @CacheEvict(cacheNames = CacheConfig.POST_VERSION_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.POST_LIST_CACHE, CacheConfig.POST_DETAIL_LIST_CACHE}, allEntries = true)})
+    @Transactional
+    public PostDetail updatePost(Long id, Post updatedPost, LongPredicate expectedVersion) {
+        Post post = postRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Post not found"));
+        if (!expectedVersion.test(post.getVersion())) {
+            throw new OptimisticLockingFailureException("Post " + id + " is at version " + post.getVersion());
+        }
         post.setContent(updatedPost.getContent());
         post.setTitle(updatedPost.getTitle());
-        return postRepository.save(post);
+        // flushed here so the returned version is the one written
+        return PostDetail.from(postRepository.saveAndFlush(post));
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.POST_CACHE, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.POST_VERSION_CACHE, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.POST_LIST_CACHE, CacheConfig.POST_DETAIL_LIST_CACHE}, allEntries = true)})
     public void deletePost(Long id) {
         postRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Bounds a client-supplied page size to {@code posts.page.max-size}. Callers apply it before the
+     * cached listings so that the cache key is the size actually served.
+     */
+    public int pageSize(int limit) {
+        if (limit < 1) {
+            throw new InvalidRequestException("limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private static PostCursor decode(String cursor) {
+        try {
+            return PostCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    private static <T> PostPage<T> page(List<T> posts, Limit pageSize, Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        String nextCursor = null;
+        if (posts.size() == pageSize.max()) {
+            T last = posts.get(posts.size() - 1);
+            nextCursor = new PostCursor(createdAt.apply(last), id.apply(last)).encode();
+        }
+        return new PostPage<>(posts, nextCursor);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.secureapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.secureapi.dto.TokenPair;
+import com.example.secureapi.model.RefreshToken;
+import com.example.secureapi.repository.RefreshTokenRepository;
+import com.example.secureapi.security.CustomUserDetailsService;
+import com.example.secureapi.security.SecurityMetrics;
+import com.example.secureapi.security.UserPrincipal;
+import com.example.secureapi.util.JwtUtil;
+
+/**
+ * Issues and rotates opaque refresh tokens. Each token can be exchanged exactly once; presenting
+ * an already used token means it was copied, so its whole family is revoked and the legitimate
+ * holder has to log in again. A family expires {@code ttl} after the login that started it, however
+ * often it is rotated.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final SecurityMetrics securityMetrics;
+    private final Duration ttl;
+    private final int cleanupBatchSize;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               CustomUserDetailsService userDetailsService, JwtUtil jwtUtil,
+                               TransactionTemplate transactionTemplate, SecurityMetrics securityMetrics,
+                               @Value("${security.jwt.refresh-token.ttl:48h}") Duration ttl,
+                               @Value("${security.jwt.refresh-token.cleanup-batch-size:1000}") int cleanupBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtil = jwtUtil;
+        this.transactionTemplate = transactionTemplate;
+        this.securityMetrics = securityMetrics;
+        this.ttl = ttl;
+        this.cleanupBatchSize = cleanupBatchSize;
+    }
+
+    /**
+     * Starts a new token family, typically on login.
+     */
+    public TokenPair issue(String username, String role) {
+        return issue(username, role, randomId(16), Instant.now().plus(ttl));
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair carrying the account's current role. Empty when
+     * the token is unknown, expired or has already been used, or the account is gone or disabled; in
+     * the last two cases the whole family is revoked.
+     */
+    public Optional<TokenPair> rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            securityMetrics.invalidRefreshToken();
+            return Optional.empty();
+        }
+        String tokenHash = hash(refreshToken);
+        return transactionTemplate.execute(status -> {
+            RefreshToken stored = refreshTokenRepository.findById(tokenHash).orElse(null);
+            Instant now = Instant.now();
+            if (stored == null || stored.isExpired(now)) {
+                securityMetrics.invalidRefreshToken();
+                return Optional.empty();
+            }
+            if (refreshTokenRepository.markUsed(tokenHash, now) == 0) {
+                securityMetrics.refreshTokenReuse();
+                refreshTokenRepository.deleteFamily(stored.getFamilyId());
+                return Optional.empty();
+            }
+            Optional<UserPrincipal> user = userDetailsService.findPrincipal(stored.getUsername())
+                    .filter(UserPrincipal::enabled);
+            if (user.isEmpty()) {
+                securityMetrics.invalidRefreshToken();
+                refreshTokenRepository.deleteFamily(stored.getFamilyId());
+                return Optional.empty();
+            }
+            return Optional.of(issue(stored.getUsername(), user.get().role().name(), stored.getFamilyId(),
+                    stored.getExpiresAt()));
+        });
+    }
+
+    /**
+     * Revokes the family the token belongs to, e.g. on logout.
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.findById(hash(refreshToken))
+                .ifPresent(stored -> refreshTokenRepository.deleteFamily(stored.getFamilyId())));
+    }
+
+    /**
+     * Deletes expired tokens in batches of {@code cleanup-batch-size}, one short transaction each,
+     * so the sweep never holds locks on a large range of rows.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-token.cleanup-interval-ms:600000}")
+    public int deleteExpired() {
+        Instant now = Instant.now();
+        int deleted = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<String> expired = refreshTokenRepository.findExpiredTokenHashes(now, Limit.of(cleanupBatchSize));
+                refreshTokenRepository.deleteAllByIdInBatch(expired);
+                return expired.size();
+            });
+            deleted += batch;
+            if (batch < cleanupBatchSize) {
+                return deleted;
+            }
+        }
+    }
+
+    private TokenPair issue(String username, String role, String familyId, Instant expiresAt) {
+        String refreshToken = randomId(32);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), familyId, username, role, expiresAt));
+        return new TokenPair(jwtUtil.generateToken(username, role), refreshToken);
+    }
+
+    private String randomId(int bytes) {
+        byte[] id = new byte[bytes];
+        random.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
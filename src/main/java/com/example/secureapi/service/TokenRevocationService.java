@@ -0,0 +1,96 @@
+package com.example.secureapi.service;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.secureapi.util.JwtUtil;
+import com.example.secureapi.util.TokenDenylist;
+import com.example.secureapi.util.VerifiedClaims;
+
+/**
+ * Revokes tokens by id until they expire. With {@code security.jwt.revocation.redis-sync} every
+ * revocation is also recorded in a Redis sorted set scored by expiry, which new nodes load on
+ * startup, and published so running nodes update their local denylist immediately.
+ */
+@Service
+public class TokenRevocationService {
+
+    public static final String CHANNEL = "token-revocation";
+    private static final String REVOKED_KEY = "revoked-tokens";
+    private static final char SEPARATOR = '|';
+
+    private final TokenDenylist denylist;
+    private final JwtUtil jwtUtil;
+    private final StringRedisTemplate redis;
+
+    public TokenRevocationService(TokenDenylist denylist, JwtUtil jwtUtil, ObjectProvider<StringRedisTemplate> redisTemplate,
+                                  @Value("${security.jwt.revocation.redis-sync:false}") boolean redisSync) {
+        this.denylist = denylist;
+        this.jwtUtil = jwtUtil;
+        this.redis = redisSync ? redisTemplate.getObject() : null;
+    }
+
+    /**
+     * Revokes a token presented by its holder. Returns {@code false} when it is not a valid token.
+     */
+    public boolean revoke(String token) {
+        Optional<VerifiedClaims> claims = jwtUtil.verify(token);
+        claims.ifPresent(this::revoke);
+        return claims.isPresent();
+    }
+
+    public void revoke(VerifiedClaims claims) {
+        if (claims.tokenId() == null) {
+            return;
+        }
+        denylist.revoke(claims.tokenId(), claims.expiresAtMillis());
+        if (redis != null) {
+            redis.opsForZSet().add(REVOKED_KEY, claims.tokenId(), claims.expiresAtMillis());
+            redis.convertAndSend(CHANNEL, claims.tokenId() + SEPARATOR + claims.expiresAtMillis());
+        }
+    }
+
+    /**
+     * Applies a revocation published by any node, including this one.
+     */
+    public void applyRemote(String message) {
+        int separator = message.lastIndexOf(SEPARATOR);
+        if (separator <= 0) {
+            return;
+        }
+        denylist.revoke(message.substring(0, separator), Long.parseLong(message.substring(separator + 1)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        if (redis == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        redis.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, now);
+        Set<TypedTuple<String>> revoked = redis.opsForZSet().rangeByScoreWithScores(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+        if (revoked != null) {
+            for (TypedTuple<String> entry : revoked) {
+                denylist.revoke(entry.getValue(), entry.getScore().longValue(), now);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        denylist.evictExpired(now);
+        if (redis != null) {
+            redis.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, now);
+        }
+    }
+}
@@ -2,48 +2,113 @@ package com.example.secureapi.service;
 
 import java.util.Optional;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import com.example.secureapi.audit.AuditEventType;
+import com.example.secureapi.audit.AuditLog;
 import com.example.secureapi.dto.LoginDto;
+import com.example.secureapi.dto.TokenPair;
+import com.example.secureapi.dto.UserAccountUpdate;
 import com.example.secureapi.dto.UserDto;
 import com.example.secureapi.model.User;
 import com.example.secureapi.model.User.Role;
 import com.example.secureapi.repository.UserRepository;
-import com.example.secureapi.util.JwtUtil;
+import com.example.secureapi.security.CustomUserDetailsService;
+import com.example.secureapi.security.SecurityMetrics;
+import com.example.secureapi.security.UserCredentials;
+import com.example.secureapi.util.SingleFlight;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final PasswordHashingService passwordHashingService;
+    private final RefreshTokenService refreshTokenService;
+    private final SecurityMetrics securityMetrics;
+    private final AuditLog auditLog;
+    private final CustomUserDetailsService userDetailsService;
+    private final SingleFlight<Long, Optional<User>> userLookups;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                       RefreshTokenService refreshTokenService, SecurityMetrics securityMetrics, AuditLog auditLog,
+                       CustomUserDetailsService userDetailsService, SingleFlight<Long, Optional<User>> userLookups) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtUtil = jwtUtil;
+        this.passwordHashingService = passwordHashingService;
+        this.refreshTokenService = refreshTokenService;
+        this.securityMetrics = securityMetrics;
+        this.auditLog = auditLog;
+        this.userDetailsService = userDetailsService;
+        this.userLookups = userLookups;
     }
 
     public void registerUser(UserDto userDto) {
         User USER = new User();
         USER.setUsername(userDto.getUsername());
-        USER.setPassword(passwordEncoder.encode(userDto.getPassword()));
+        USER.setPassword(passwordHashingService.hash(userDto.getPassword()));
         USER.setRole(Role.USER);
-        userRepository.save(USER);
+        try {
+            userRepository.save(USER);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidRequestException("Username already taken");
+        }
+        // clears a cached "no such user" on every node
+        userDetailsService.invalidate(USER.getUsername());
     }
 
-    public String login(LoginDto loginDto) {
-        User USER = userRepository.findByUsername(loginDto.getUsername())
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * Logs a user in, recording the attempt in the audit log against {@code clientIp}.
+     */
+    public TokenPair login(LoginDto loginDto, String clientIp) {
+        Optional<UserCredentials> found = userDetailsService.findCredentials(loginDto.getUsername());
+        long start = System.nanoTime();
+        PasswordHashingService.Verification verification = passwordHashingService.verify(
+            loginDto.getPassword(), found.map(UserCredentials::passwordHash).orElse(null));
+        securityMetrics.recordPasswordVerification(start);
+
+        // same failure for unknown users, wrong passwords and disabled accounts
+        if (!verification.matched() || !found.get().enabled()) {
+            securityMetrics.badCredentials();
+            auditLog.record(AuditEventType.LOGIN_FAILURE, loginDto.getUsername(), clientIp, null);
+            throw new InvalidCredentialsException();
+        }
 
-        if (!passwordEncoder.matches(loginDto.getPassword(), USER.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
+        UserCredentials credentials = found.get();
+        if (verification.upgradedHash() != null) {
+            userRepository.findById(credentials.id()).ifPresent(user -> {
+                user.setPassword(verification.upgradedHash());
+                userRepository.save(user);
+            });
+            userDetailsService.invalidate(credentials.username());
         }
 
-        return jwtUtil.generateToken(USER.getUsername(), USER.getRole().name());
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, credentials.username(), clientIp, null);
+        return refreshTokenService.issue(credentials.username(), credentials.role().name());
+    }
+
+    /**
+     * Applies an admin change to an account and evicts its cached principal on every node, so the
+     * new role or status applies to tokens that are already issued.
+     */
+    public Optional<User> updateAccount(Long id, UserAccountUpdate update, String changedBy) {
+        return userRepository.findById(id).map(user -> {
+            if (update.role() != null) {
+                user.setRole(update.role());
+            }
+            if (update.enabled() != null) {
+                user.setEnabled(update.enabled());
+            }
+            User saved = userRepository.save(user);
+            userDetailsService.invalidate(saved.getUsername());
+            auditLog.record(AuditEventType.ACCOUNT_UPDATED, changedBy,
+                "user " + saved.getUsername() + " role=" + saved.getRole() + " enabled=" + saved.isEnabled());
+            return saved;
+        });
     }
 
+    /**
+     * Concurrent lookups of the same id share one query; callers get the same detached instance.
+     */
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id); 
+        return userLookups.load(id, () -> userRepository.findById(id));
     }
 }
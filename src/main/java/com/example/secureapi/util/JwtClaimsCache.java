@@ -0,0 +1,97 @@
+package com.example.secureapi.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded cache of verified claims keyed by the SHA-256 digest of the raw token, so bearer
+ * tokens themselves are never held in memory. Each entry expires at its token's {@code exp}.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final Cache<ByteBuffer, VerifiedClaims> cache;
+
+    public JwtClaimsCache(@Value("${security.jwt.claims-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExp())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns cached claims for the token, or computes them with {@code verifier}. A verifier
+     * returning {@code null} (invalid token) is not cached.
+     */
+    public VerifiedClaims get(String token, Function<String, VerifiedClaims> verifier) {
+        ByteBuffer key = digest(token);
+        VerifiedClaims claims = cache.getIfPresent(key);
+        if (claims != null && !claims.isExpired(System.currentTimeMillis())) {
+            return claims;
+        }
+        claims = verifier.apply(token);
+        if (claims != null) {
+            cache.put(key, claims);
+        }
+        return claims;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class ExpireAtTokenExp implements Expiry<ByteBuffer, VerifiedClaims> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedClaims claims, long currentTime) {
+            long remainingMs = claims.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.secureapi.util;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+/**
+ * One entry of the {@link JwtKeyRing}. Keys without a private half can verify but not sign. The
+ * public JWK is built once so the JWKS endpoint serves a precomputed document.
+ */
+public record JwtKey(String kid, SignatureAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey,
+                     Instant createdAt, Map<String, Object> jwk) {
+
+    public static JwtKey of(String kid, SignatureAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey,
+                            Instant createdAt) {
+        Map<String, Object> jwk = new LinkedHashMap<>(Jwks.builder()
+                .key(publicKey)
+                .id(kid)
+                .algorithm(algorithm.getId())
+                .publicKeyUse("sig")
+                .build());
+        return new JwtKey(kid, algorithm, publicKey, privateKey, createdAt, Collections.unmodifiableMap(jwk));
+    }
+
+    public boolean canSign() {
+        return privateKey != null;
+    }
+}
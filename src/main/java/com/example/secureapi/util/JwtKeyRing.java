@@ -0,0 +1,146 @@
+package com.example.secureapi.util;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+/**
+ * Signing key plus every key still accepted for verification, looked up by the {@code kid} header.
+ * The ring is an immutable snapshot swapped on rotation, so verification is a single map lookup
+ * and in-flight tokens signed by a previous key stay valid until that key is retired.
+ */
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(Collection<JwtKey> keys, String activeKid) {
+        Map<String, JwtKey> byKid = new LinkedHashMap<>();
+        for (JwtKey key : keys) {
+            if (byKid.putIfAbsent(key.kid(), key) != null) {
+                throw new IllegalArgumentException("Duplicate JWT key id: " + key.kid());
+            }
+        }
+        this.snapshot = Snapshot.of(byKid, activeKid);
+    }
+
+    /**
+     * A ring with a single freshly generated key, for development and tests.
+     */
+    public static JwtKeyRing generate(SignatureAlgorithm algorithm) {
+        JwtKey key = generateKey(algorithm);
+        return new JwtKeyRing(List.of(key), key.kid());
+    }
+
+    public static JwtKey generateKey(SignatureAlgorithm algorithm) {
+        KeyPair keyPair = Jwts.SIG.EdDSA.equals(algorithm)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : algorithm.keyPair().build();
+        byte[] id = new byte[12];
+        ThreadLocalRandom.current().nextBytes(id);
+        return JwtKey.of(Base64.getUrlEncoder().withoutPadding().encodeToString(id), algorithm,
+                keyPair.getPublic(), keyPair.getPrivate(), Instant.now());
+    }
+
+    public JwtKey signingKey() {
+        return snapshot.signingKey();
+    }
+
+    public JwtKey key(String kid) {
+        return kid != null ? snapshot.keys().get(kid) : null;
+    }
+
+    public Collection<JwtKey> keys() {
+        return snapshot.keys().values();
+    }
+
+    /**
+     * The public keys as a JWKS document, rebuilt only when the ring changes.
+     */
+    public Map<String, Object> jwks() {
+        return snapshot.jwks();
+    }
+
+    /**
+     * Publishes a key for verification without signing with it yet, so other services can pick it
+     * up before the first token carrying its {@code kid} is issued.
+     */
+    public void add(JwtKey key) {
+        update(key, false);
+    }
+
+    /**
+     * Adds {@code key} and makes it the signing key. The previous key keeps verifying.
+     */
+    public void rotate(JwtKey key) {
+        if (!key.canSign()) {
+            throw new IllegalArgumentException("JWT key " + key.kid() + " has no private key");
+        }
+        update(key, true);
+    }
+
+    /**
+     * Stops accepting tokens signed with {@code kid}. The signing key cannot be retired.
+     */
+    public void retire(String kid) {
+        lock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current.signingKey().kid().equals(kid)) {
+                throw new IllegalArgumentException("Cannot retire the active JWT signing key " + kid);
+            }
+            Map<String, JwtKey> keys = new LinkedHashMap<>(current.keys());
+            keys.remove(kid);
+            snapshot = Snapshot.of(keys, current.signingKey().kid());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        JwtKey key = key(header.getKeyId());
+        return key != null ? key.publicKey() : null;
+    }
+
+    private void update(JwtKey key, boolean activate) {
+        lock.lock();
+        try {
+            Snapshot current = snapshot;
+            Map<String, JwtKey> keys = new LinkedHashMap<>(current.keys());
+            keys.put(key.kid(), key);
+            snapshot = Snapshot.of(keys, activate ? key.kid() : current.signingKey().kid());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Snapshot(JwtKey signingKey, Map<String, JwtKey> keys, Map<String, Object> jwks) {
+
+        static Snapshot of(Map<String, JwtKey> keys, String activeKid) {
+            JwtKey signingKey = keys.get(activeKid);
+            if (signingKey == null || !signingKey.canSign()) {
+                throw new IllegalArgumentException("No JWT signing key with id " + activeKid);
+            }
+            List<Map<String, Object>> jwks = new ArrayList<>(keys.size());
+            for (JwtKey key : keys.values()) {
+                jwks.add(key.jwk());
+            }
+            return new Snapshot(signingKey, Map.copyOf(keys), Map.of("keys", List.copyOf(jwks)));
+        }
+    }
+}
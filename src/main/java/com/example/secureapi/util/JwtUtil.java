@@ -1,55 +1,114 @@
 package com.example.secureapi.util;
 
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 
 @Component
 public class JwtUtil {
 
-    private final String JWT_SECRET_KEY = "secretKey";
     private final long jwtExpirationMs = 86400000; // 24 hours
-    private final long REFRESH_TOKEN_EXPIRATION_TIME = 172800000; // 48 hours
+
+    private final JwtClaimsCache claimsCache;
+    private final JwtKeyRing keyRing;
+    private final TokenDenylist denylist;
+    // built once; resolves the verification key from the ring by kid on every parse
+    private final JwtParser parser;
+
+    public JwtUtil(JwtClaimsCache claimsCache, JwtKeyRing keyRing, TokenDenylist denylist) {
+        this.claimsCache = claimsCache;
+        this.keyRing = keyRing;
+        this.denylist = denylist;
+        this.parser = Jwts.parser().keyLocator(keyRing).build();
+    }
 
     public String generateToken(String username, String role) {
+        JwtKey key = keyRing.signingKey();
         return Jwts.builder()
-                .setSubject(username)
-                .claim("role", role) 
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, JWT_SECRET_KEY)
+                .header().keyId(key.kid()).and()
+                .id(newTokenId())
+                .subject(username)
+                .claim("role", role)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+                .signWith(key.privateKey(), key.algorithm())
                 .compact();
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser().setSigningKey(JWT_SECRET_KEY).parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+    /**
+     * Verifies the token once and returns its claims, served from the claims cache when the
+     * same token has already been verified and has not yet expired. Revoked tokens are rejected
+     * even when their claims are cached.
+     */
+    public Optional<VerifiedClaims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        VerifiedClaims claims = claimsCache.get(token, this::parseOrNull);
+        if (claims == null || denylist.isRevoked(claims.tokenId(), claims.expiresAtMillis())) {
+            return Optional.empty();
         }
+        return Optional.of(claims);
     }
 
-    public String generateRefreshToken(String username) {
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_EXPIRATION_TIME))
-                .signWith(SignatureAlgorithm.HS512, JWT_SECRET_KEY)
-                .compact();
+    /**
+     * Parses and verifies the token signature without consulting the cache.
+     */
+    public VerifiedClaims parseClaims(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new VerifiedClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getId(),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser().setSigningKey(JWT_SECRET_KEY).parseClaimsJws(token).getBody();
-        return claims.getSubject();
+        return verifiedOrThrow(token).subject();
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser().setSigningKey(JWT_SECRET_KEY).parseClaimsJws(token).getBody();
-        return claims.get("role", String.class);
+        return verifiedOrThrow(token).role();
+    }
+
+    public JwtClaimsCache getClaimsCache() {
+        return claimsCache;
+    }
+
+    public JwtKeyRing getKeyRing() {
+        return keyRing;
+    }
+
+    private VerifiedClaims verifiedOrThrow(String token) {
+        return verify(token).orElseThrow(() -> new JwtException("Invalid token"));
+    }
+
+    private static String newTokenId() {
+        byte[] id = new byte[16];
+        ThreadLocalRandom.current().nextBytes(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
+
+    private VerifiedClaims parseOrNull(String token) {
+        try {
+            return parseClaims(token);
+        } catch (Exception e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package com.example.secureapi.util;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Collapses concurrent loads of the same key into one. The first caller starts the load on a
+ * virtual thread; every caller, the first included, then waits for that one result for at most
+ * {@code timeout}. A caller that times out or is interrupted only stops waiting, so a slow or
+ * abandoned request never holds up the others; the load itself is cancelled (its thread
+ * interrupted) once nobody is waiting for it any more.
+ * <p>
+ * Results and failures are handed to the callers that waited for them and then forgotten; keeping
+ * them is the job of the cache in front.
+ */
+public final class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final long timeoutNanos;
+    private final ConcurrentMap<K, Flight> flights = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(String name, Duration timeout) {
+        this.name = name;
+        this.timeoutNanos = timeout.toNanos();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-load-", 0).factory());
+    }
+
+    /**
+     * The value {@code loader} produces for {@code key}, shared with every concurrent caller for the
+     * same key.
+     *
+     * @throws SingleFlightTimeoutException when the load did not finish within the timeout
+     */
+    public V load(K key, Supplier<V> loader) {
+        Flight flight = join(key, loader);
+        try {
+            return flight.task.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw (Error) e.getCause();
+        } catch (TimeoutException | CancellationException e) {
+            flight.leave();
+            timeouts.increment();
+            throw new SingleFlightTimeoutException(name);
+        } catch (InterruptedException e) {
+            flight.leave();
+            Thread.currentThread().interrupt();
+            throw new SingleFlightTimeoutException(name);
+        }
+    }
+
+    private Flight join(K key, Supplier<V> loader) {
+        while (true) {
+            Flight existing = flights.get(key);
+            if (existing != null) {
+                if (existing.tryJoin()) {
+                    shared.increment();
+                    return existing;
+                }
+                // everyone left and it is being cancelled
+                flights.remove(key, existing);
+                continue;
+            }
+            Flight flight = new Flight(key, loader);
+            if (flights.putIfAbsent(key, flight) == null) {
+                loads.increment();
+                executor.execute(flight);
+                return flight;
+            }
+        }
+    }
+
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long sharedCount() {
+        return shared.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("single.flight.calls", loads, LongAdder::sum)
+                .tag("name", name).tag("result", "loaded")
+                .description("Calls that ran the load themselves")
+                .register(registry);
+        FunctionCounter.builder("single.flight.calls", shared, LongAdder::sum)
+                .tag("name", name).tag("result", "shared")
+                .description("Calls that waited for a load another call had started")
+                .register(registry);
+        FunctionCounter.builder("single.flight.calls", timeouts, LongAdder::sum)
+                .tag("name", name).tag("result", "timed_out")
+                .register(registry);
+    }
+
+    private final class Flight implements Runnable {
+
+        private final K key;
+        private final FutureTask<V> task;
+        private final AtomicInteger waiters = new AtomicInteger(1);
+
+        Flight(K key, Supplier<V> loader) {
+            this.key = key;
+            this.task = new FutureTask<>(loader::get);
+        }
+
+        boolean tryJoin() {
+            int current;
+            do {
+                current = waiters.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!waiters.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void leave() {
+            if (waiters.decrementAndGet() == 0) {
+                flights.remove(key, this);
+                task.cancel(true);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                flights.remove(key, this);
+            }
+        }
+    }
+}
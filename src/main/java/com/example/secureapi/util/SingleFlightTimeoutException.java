@@ -0,0 +1,12 @@
+package com.example.secureapi.util;
+
+/**
+ * Thrown to a caller of {@link SingleFlight#load} whose lookup did not complete in time; the request
+ * should be retried later.
+ */
+public class SingleFlightTimeoutException extends RuntimeException {
+
+    public SingleFlightTimeoutException(String name) {
+        super("Timed out waiting for " + name);
+    }
+}
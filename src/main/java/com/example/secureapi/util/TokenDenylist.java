@@ -0,0 +1,177 @@
+package com.example.secureapi.util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory set of revoked token ids ({@code jti}), bucketed by the token's expiry. A lookup only
+ * probes the bucket its own {@code exp} falls into, and a bucket is dropped as a whole once every
+ * token in it has expired, so entries never outlive the token they revoke.
+ * <p>
+ * Each bucket is an open-addressing table of 64-bit id hashes. Reads are lock-free; writes, which
+ * only happen on logout or revocation, take a per-bucket lock and publish a grown table atomically.
+ */
+public class TokenDenylist {
+
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final long bucketWidthMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final long hashSeed = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * @param bucketWidth granularity at which expired entries are dropped
+     * @param maxTokenTtl longest lifetime of any token that can be revoked
+     */
+    public TokenDenylist(Duration bucketWidth, Duration maxTokenTtl) {
+        this.bucketWidthMillis = bucketWidth.toMillis();
+        if (bucketWidthMillis <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+        this.buckets = new AtomicReferenceArray<>((int) (maxTokenTtl.toMillis() / bucketWidthMillis) + 2);
+    }
+
+    /**
+     * Revokes {@code tokenId} until {@code expiresAtMillis}. Already expired tokens are ignored.
+     */
+    public void revoke(String tokenId, long expiresAtMillis) {
+        revoke(tokenId, expiresAtMillis, System.currentTimeMillis());
+    }
+
+    public void revoke(String tokenId, long expiresAtMillis, long nowMillis) {
+        if (expiresAtMillis <= nowMillis) {
+            return;
+        }
+        long index = expiresAtMillis / bucketWidthMillis;
+        if (index - nowMillis / bucketWidthMillis >= buckets.length()) {
+            throw new IllegalArgumentException("Token expires beyond the denylist horizon");
+        }
+        bucketFor(index).add(hash(tokenId));
+    }
+
+    public boolean isRevoked(String tokenId, long expiresAtMillis) {
+        if (tokenId == null) {
+            return false;
+        }
+        long index = expiresAtMillis / bucketWidthMillis;
+        Bucket bucket = buckets.get(slot(index));
+        return bucket != null && bucket.index == index && bucket.contains(hash(tokenId));
+    }
+
+    /**
+     * Drops every bucket whose tokens have all expired.
+     */
+    public void evictExpired(long nowMillis) {
+        long current = nowMillis / bucketWidthMillis;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.index < current) {
+                buckets.compareAndSet(i, bucket, null);
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null) {
+                size += bucket.size;
+            }
+        }
+        return size;
+    }
+
+    private Bucket bucketFor(long index) {
+        int slot = slot(index);
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.index == index) {
+                return bucket;
+            }
+            // the slot is empty or holds a bucket that expired a full cycle ago
+            Bucket created = new Bucket(index);
+            if (buckets.compareAndSet(slot, bucket, created)) {
+                return created;
+            }
+        }
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) buckets.length());
+    }
+
+    private long hash(String tokenId) {
+        long h = hashSeed;
+        for (int i = 0; i < tokenId.length(); i++) {
+            h = (h ^ tokenId.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+
+    private static final class Bucket {
+        final long index;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile AtomicLongArray table = new AtomicLongArray(INITIAL_CAPACITY);
+        volatile int size;
+
+        Bucket(long index) {
+            this.index = index;
+        }
+
+        boolean contains(long hash) {
+            AtomicLongArray current = table;
+            int mask = current.length() - 1;
+            for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+                long stored = current.get(slot);
+                if (stored == hash) {
+                    return true;
+                }
+                if (stored == EMPTY) {
+                    return false;
+                }
+            }
+        }
+
+        void add(long hash) {
+            lock.lock();
+            try {
+                if (contains(hash)) {
+                    return;
+                }
+                if ((size + 1) * 2 > table.length()) {
+                    AtomicLongArray grown = new AtomicLongArray(table.length() * 2);
+                    for (int i = 0; i < table.length(); i++) {
+                        long stored = table.get(i);
+                        if (stored != EMPTY) {
+                            insert(grown, stored);
+                        }
+                    }
+                    table = grown;
+                }
+                insert(table, hash);
+                size++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static void insert(AtomicLongArray target, long hash) {
+            int mask = target.length() - 1;
+            int slot = (int) hash & mask;
+            while (target.get(slot) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            target.set(slot, hash);
+        }
+    }
+}
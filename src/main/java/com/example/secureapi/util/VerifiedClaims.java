@@ -0,0 +1,11 @@
+package com.example.secureapi.util;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been checked.
+ */
+public record VerifiedClaims(String subject, String role, String tokenId, long issuedAtMillis, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
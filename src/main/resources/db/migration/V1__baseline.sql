@@ -0,0 +1,23 @@
+-- Schema as ddl-auto created it before migrations were versioned. Databases that already have it
+-- are baselined at this version (spring.flyway.baseline-on-migrate) and only apply what follows.
+
+CREATE TABLE users (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at datetime(6) NOT NULL,
+    password varchar(255) NOT NULL,
+    role enum ('ADMIN','READ_ONLY','USER') NOT NULL,
+    updated_at datetime(6) NOT NULL,
+    username varchar(255),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE posts (
+    id bigint NOT NULL AUTO_INCREMENT,
+    content TEXT NOT NULL,
+    created_at datetime(6) NOT NULL,
+    title varchar(255) NOT NULL,
+    updated_at datetime(6) NOT NULL,
+    author_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,12 @@
+-- Post and user ids move from AUTO_INCREMENT to pooled sequences that hand out blocks of 50.
+-- MySQL has no sequences, so Hibernate keeps each one as a single-row table holding the top of
+-- the next block; seeding it 50 past the highest existing id starts that block after every row
+-- inserted so far. A table ddl-auto already created is reseeded the same way.
+
+CREATE TABLE IF NOT EXISTS posts_seq (next_val bigint) ENGINE=InnoDB;
+DELETE FROM posts_seq;
+INSERT INTO posts_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM posts;
+
+CREATE TABLE IF NOT EXISTS users_seq (next_val bigint) ENGINE=InnoDB;
+DELETE FROM users_seq;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM users;
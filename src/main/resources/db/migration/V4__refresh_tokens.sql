@@ -0,0 +1,14 @@
+-- Refresh tokens, stored as the SHA-256 hash of the value handed to the client. Used tokens stay
+-- until they expire so that presenting one again is detected as reuse of its family.
+CREATE TABLE refresh_tokens (
+    token_hash varchar(43) NOT NULL,
+    family_id varchar(22) NOT NULL,
+    username varchar(255) NOT NULL,
+    role varchar(255) NOT NULL,
+    expires_at datetime(6) NOT NULL,
+    used_at datetime(6),
+    PRIMARY KEY (token_hash)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,12 @@
+-- Security audit log, appended in batches and never updated.
+CREATE TABLE audit_events (
+    id bigint NOT NULL AUTO_INCREMENT,
+    occurred_at datetime(6) NOT NULL,
+    type varchar(32) NOT NULL,
+    principal varchar(255),
+    client_ip varchar(45),
+    detail varchar(1024),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_audit_events_occurred_at ON audit_events (occurred_at);
@@ -0,0 +1,2 @@
+-- Disabled accounts can no longer authenticate; existing accounts stay enabled.
+ALTER TABLE users ADD COLUMN enabled boolean NOT NULL DEFAULT true;
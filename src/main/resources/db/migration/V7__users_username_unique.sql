@@ -0,0 +1,4 @@
+-- Logins look users up by username, so it must be present and unique. Registration has always
+-- limited it to 20 characters; duplicates have to be resolved before this runs.
+ALTER TABLE users MODIFY username varchar(20) NOT NULL;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
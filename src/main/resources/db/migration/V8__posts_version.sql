@@ -0,0 +1,2 @@
+-- Optimistic locking and ETags for posts; existing rows start at version 0.
+ALTER TABLE posts ADD COLUMN version bigint NOT NULL DEFAULT 0;
@@ -19,6 +19,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.example.secureapi.model.User;
 import com.example.secureapi.repository.UserRepository;
+import com.example.secureapi.service.RefreshTokenService;
 import com.example.secureapi.util.JwtUtil;
 
 @SpringBootTest
@@ -39,6 +40,9 @@ public class SecureAPIApplicationTests {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @BeforeEach
     public void setup() {
         userJwt = "Bearer " + jwtUtil.generateToken("test_user", "USER");
@@ -188,7 +192,7 @@ public class SecureAPIApplicationTests {
 
     @Test
     public void testRefreshToken() throws Exception {
-        String refreshToken = jwtUtil.generateRefreshToken("test_user");
+        String refreshToken = refreshTokenService.issue("test_user", "USER").refreshToken();
     
         mockMvc.perform(post("/api/users/refresh-token")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,87 @@
+package com.example.secureapi.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AsyncAuditLogTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testEventsReachEverySinkInBatches() throws Exception {
+        List<List<AuditEvent>> fileBatches = new CopyOnWriteArrayList<>();
+        List<AuditEvent> database = new CopyOnWriteArrayList<>();
+        AsyncAuditLog auditLog = new AsyncAuditLog(
+                List.of(batch -> fileBatches.add(List.copyOf(batch)), database::addAll),
+                64, 16, AsyncAuditLog.OverflowPolicy.BLOCK, Duration.ofSeconds(1), Duration.ofMillis(1), registry);
+
+        for (int i = 0; i < 100; i++) {
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, "user" + i, "10.0.0.1", null);
+        }
+        auditLog.close();
+
+        assertEquals(100, database.size());
+        assertEquals("user99", database.get(99).principal());
+        assertTrue(fileBatches.stream().allMatch(batch -> batch.size() <= 16));
+        assertEquals(100, fileBatches.stream().mapToInt(List::size).sum());
+        assertEquals(100, registry.get("audit.events").tag("outcome", "written").counter().count());
+        assertEquals(0, registry.get("audit.events").tag("outcome", "dropped").counter().count());
+    }
+
+    @Test
+    public void testDropPolicyCountsOverflow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<AuditEvent> written = new ArrayList<>();
+        AsyncAuditLog auditLog = new AsyncAuditLog(List.of(batch -> {
+            awaitQuietly(release);
+            written.addAll(batch);
+        }), 4, 1, AsyncAuditLog.OverflowPolicy.DROP, Duration.ZERO, Duration.ofMillis(1), registry);
+
+        // the writer holds the first event in a stuck sink, so only four more fit
+        for (int i = 0; i < 20; i++) {
+            auditLog.record(AuditEventType.RATE_LIMITED, null, "10.0.0." + i, "ip");
+        }
+        release.countDown();
+        auditLog.close();
+
+        double dropped = registry.get("audit.events").tag("outcome", "dropped").counter().count();
+        assertTrue(dropped >= 15, "dropped " + dropped);
+        assertEquals(20, written.size() + (int) dropped);
+    }
+
+    @Test
+    public void testSinkFailuresAreCountedAndDoNotStopTheWriter() throws Exception {
+        List<AuditEvent> healthy = new CopyOnWriteArrayList<>();
+        AsyncAuditLog auditLog = new AsyncAuditLog(List.of(batch -> {
+            throw new java.io.IOException("disk full");
+        }, healthy::addAll), 16, 4, AsyncAuditLog.OverflowPolicy.BLOCK, Duration.ofSeconds(1), Duration.ofMillis(1),
+                registry);
+
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, "user", "10.0.0.1", null);
+        }
+        auditLog.close();
+
+        assertEquals(10, healthy.size());
+        assertEquals(10, registry.get("audit.events").tag("outcome", "failed").counter().count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
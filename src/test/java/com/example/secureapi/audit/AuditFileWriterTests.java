@@ -0,0 +1,66 @@
+package com.example.secureapi.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AuditFileWriterTests {
+
+    private static final int SEGMENT_SIZE = 32 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWritesEscapedJsonLines() throws IOException {
+        try (AuditFileWriter writer = new AuditFileWriter(directory, SEGMENT_SIZE, 4, true)) {
+            writer.write(List.of(
+                    new AuditEvent(0, AuditEventType.LOGIN_FAILURE, "eve\"\n{", "10.0.0.1", null),
+                    new AuditEvent(1000, AuditEventType.POST_DELETED, "admin", null, "post 7")));
+        }
+
+        List<String> lines = Files.readAllLines(segments().get(0));
+        assertEquals(List.of(
+                "{\"ts\":\"1970-01-01T00:00:00Z\",\"type\":\"LOGIN_FAILURE\",\"principal\":\"eve\\\"\\n{\",\"ip\":\"10.0.0.1\"}",
+                "{\"ts\":\"1970-01-01T00:00:01Z\",\"type\":\"POST_DELETED\",\"principal\":\"admin\",\"detail\":\"post 7\"}"),
+                lines);
+    }
+
+    @Test
+    public void testRotatesAndKeepsNewestSegments() throws IOException {
+        List<AuditEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new AuditEvent(i, AuditEventType.RATE_LIMITED, "user" + i, "10.0.0.1", "x".repeat(200)));
+        }
+        try (AuditFileWriter writer = new AuditFileWriter(directory, SEGMENT_SIZE, 3, false)) {
+            for (int i = 0; i < 10; i++) {
+                writer.write(batch);
+            }
+        }
+
+        List<Path> segments = segments();
+        assertEquals(3, segments.size());
+        for (Path segment : segments) {
+            // closed segments are truncated to whole lines
+            assertTrue(Files.size(segment) <= SEGMENT_SIZE);
+            for (String line : Files.readAllLines(segment)) {
+                assertTrue(line.startsWith("{\"ts\":") && line.endsWith("}"), line);
+            }
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.secureapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.secureapi.model.User;
+import com.example.secureapi.security.PrincipalAuthentication;
+import com.example.secureapi.security.UserPrincipal;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class ResponseCacheFilterTests {
+
+    private static final String SHARED = "max-age=0, s-maxage=10, stale-while-revalidate=30";
+
+    private final AtomicLong nanos = new AtomicLong(1);
+    private final ResponseCache cache = new ResponseCache(1 << 20, 64 * 1024, 1024, Duration.ofMinutes(5),
+            Duration.ofSeconds(30), nanos::get);
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(cache, Duration.ofSeconds(5));
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile String cacheControl = SHARED;
+    private volatile String body = "{\"id\":1}";
+
+    private final FilterChain handler = (request, response) -> {
+        calls.incrementAndGet();
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setContentType("application/json");
+        http.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        http.setHeader(HttpHeaders.ETAG, "\"3\"");
+        http.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    public void authenticate() {
+        as(User.Role.USER);
+    }
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void as(User.Role role) {
+        as("alice", role);
+    }
+
+    private static void as(String username, User.Role role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new PrincipalAuthentication(new UserPrincipal((long) username.hashCode(), username, role, true)));
+    }
+
+    private MockHttpServletResponse get(String uri) throws Exception {
+        return perform(new MockHttpServletRequest("GET", uri), handler);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    public void testRepeatedGetIsServedFromStoredBytes() throws Exception {
+        MockHttpServletResponse first = get("/api/posts/1");
+        advance(Duration.ofSeconds(4));
+        MockHttpServletResponse second = get("/api/posts/1");
+
+        assertEquals(1, calls.get());
+        assertEquals("MISS", first.getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals("HIT", second.getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals("{\"id\":1}", second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertEquals(SHARED, second.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals("4", second.getHeader(HttpHeaders.AGE));
+        assertEquals(8, second.getContentLength());
+    }
+
+    @Test
+    public void testOnlySharedCacheableResponsesAreStored() throws Exception {
+        for (String directives : List.of("private, max-age=60", "no-store", "max-age=0", "no-cache, s-maxage=10")) {
+            cacheControl = directives;
+            get("/api/posts/" + directives.length());
+            get("/api/posts/" + directives.length());
+        }
+        assertEquals(8, calls.get());
+    }
+
+    @Test
+    public void testAuthenticatedResponsesNeedAnExplicitSharedDirective() throws Exception {
+        FilterChain whoAmI = (request, response) -> {
+            calls.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            http.getOutputStream().write(SecurityContextHolder.getContext().getAuthentication().getName()
+                    .getBytes(StandardCharsets.UTF_8));
+        };
+        cacheControl = "max-age=60";
+        as("alice", User.Role.USER);
+        perform(new MockHttpServletRequest("GET", "/api/users/me"), whoAmI);
+        as("bob", User.Role.USER);
+        MockHttpServletResponse bob = perform(new MockHttpServletRequest("GET", "/api/users/me"), whoAmI);
+
+        assertEquals(2, calls.get());
+        assertEquals("bob", bob.getContentAsString());
+
+        for (String shared : List.of("s-maxage=60", "public, max-age=60")) {
+            cacheControl = shared;
+            as("alice", User.Role.USER);
+            perform(new MockHttpServletRequest("GET", "/api/posts/" + shared.length()), whoAmI);
+            as("bob", User.Role.USER);
+            perform(new MockHttpServletRequest("GET", "/api/posts/" + shared.length()), whoAmI);
+        }
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testAnonymousMaxAgeResponsesAreShared() throws Exception {
+        SecurityContextHolder.clearContext();
+        cacheControl = "max-age=60";
+        get("/api/posts/1");
+        get("/api/posts/1");
+
+        assertEquals(1, calls.get());
+
+        MockHttpServletRequest withToken = new MockHttpServletRequest("GET", "/api/posts/2");
+        withToken.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        perform(withToken, handler);
+        perform(withToken, handler);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testEntriesVaryOnRoleQueryAndAccept() throws Exception {
+        get("/api/users/1");
+        as(User.Role.ADMIN);
+        get("/api/users/1");
+        MockHttpServletRequest query = new MockHttpServletRequest("GET", "/api/users/1");
+        query.setQueryString("fields=name");
+        perform(query, handler);
+        MockHttpServletRequest xml = new MockHttpServletRequest("GET", "/api/users/1");
+        xml.addHeader(HttpHeaders.ACCEPT, "application/xml");
+        perform(xml, handler);
+        get("/api/users/1");
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testStaleEntryIsServedThenRefreshed() throws Exception {
+        get("/api/posts/1");
+        advance(Duration.ofSeconds(11));
+        body = "{\"id\":1,\"title\":\"edited\"}";
+
+        MockHttpServletResponse stale = get("/api/posts/1");
+
+        assertEquals("STALE", stale.getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals("{\"id\":1}", stale.getContentAsString());
+        assertEquals(2, calls.get(), "refreshed once the stale answer was sent");
+
+        MockHttpServletResponse refreshed = get("/api/posts/1");
+        assertEquals("HIT", refreshed.getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals(body, refreshed.getContentAsString());
+
+        advance(Duration.ofSeconds(41));
+        assertEquals("MISS", get("/api/posts/1").getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneFetch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handler.doFilter(request, response);
+        };
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                responses.add(executor.submit(() -> {
+                    as(User.Role.USER);
+                    return perform(new MockHttpServletRequest("GET", "/api/posts/1"), slow);
+                }));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals("{\"id\":1}", response.get(5, TimeUnit.SECONDS).getContentAsString());
+            }
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testUncacheableKeysSkipCollapsing() throws Exception {
+        cacheControl = "private";
+        get("/api/posts/1");
+
+        assertTrue(cache.isUncacheable(new ResponseCache.Key("/api/posts/1", null, "ROLE_USER", "")));
+        assertNull(get("/api/posts/1").getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+    }
+
+    @Test
+    public void testWriteDropsThePathItsChildrenAndItsCollection() throws Exception {
+        get("/api/posts");
+        get("/api/posts/1");
+        get("/api/posts/1/comments");
+        get("/api/posts/2");
+        get("/api/users/1");
+
+        MockHttpServletResponse put = perform(new MockHttpServletRequest("PUT", "/api/posts/1"),
+                (request, response) -> ((HttpServletResponse) response).setStatus(200));
+        assertEquals(200, put.getStatus());
+
+        for (String uri : List.of("/api/posts", "/api/posts/1", "/api/posts/1/comments")) {
+            assertEquals("MISS", get(uri).getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER), uri);
+        }
+        for (String uri : List.of("/api/posts/2", "/api/users/1")) {
+            assertEquals("HIT", get(uri).getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER), uri);
+        }
+    }
+
+    @Test
+    public void testValidatorsAreCheckedAgainstTheStoredResponse() throws Exception {
+        get("/api/posts/1");
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/posts/1");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+
+        MockHttpServletResponse response = perform(conditional, handler);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testConditionalMissDoesNotMarkTheKeyUncacheable() throws Exception {
+        FilterChain honoursValidators = (request, response) -> {
+            calls.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            http.setHeader(HttpHeaders.ETAG, "\"3\"");
+            if ("\"3\"".equals(((HttpServletRequest) request).getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                http.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            http.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/posts/1");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+
+        MockHttpServletResponse notModified = perform(conditional, honoursValidators);
+        MockHttpServletResponse first = perform(new MockHttpServletRequest("GET", "/api/posts/1"), honoursValidators);
+        MockHttpServletResponse second = perform(new MockHttpServletRequest("GET", "/api/posts/1"), honoursValidators);
+
+        assertEquals(304, notModified.getStatus());
+        assertEquals("MISS", first.getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals("HIT", second.getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals("{\"id\":1}", second.getContentAsString());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testEncodedUpstreamBodiesAreNotServedToOtherCallers() throws Exception {
+        FilterChain upstream = (request, response) -> {
+            calls.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            http.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+            String accepted = ((HttpServletRequest) request).getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (accepted != null && accepted.contains("gzip")) {
+                http.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                    gzip.write(payload);
+                }
+                payload = gzipped.toByteArray();
+            }
+            http.getOutputStream().write(payload);
+        };
+        MockHttpServletRequest gzipCaller = new MockHttpServletRequest("GET", "/api/proxied/1");
+        gzipCaller.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, br");
+
+        MockHttpServletResponse gzipped = perform(gzipCaller, upstream);
+        MockHttpServletResponse plain = perform(new MockHttpServletRequest("GET", "/api/proxied/1"), upstream);
+
+        assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"id\":1}", plain.getContentAsString());
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    public void testRequestNoCacheSkipsTheLookup() throws Exception {
+        get("/api/posts/1");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.addHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        perform(request, handler);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testLargeBodiesAreKeptOffHeapAndTotalSizeIsBounded() throws Exception {
+        body = "x".repeat(60 * 1024);
+        for (int i = 0; i < 40; i++) {
+            get("/api/posts/" + i);
+        }
+
+        // admission decides which entries survive; some must, and all of them off-heap
+        int stored = 0;
+        for (int i = 0; i < 40; i++) {
+            CachedResponse entry = cache.get(new ResponseCache.Key("/api/posts/" + i, null, "ROLE_USER", ""));
+            if (entry != null) {
+                assertTrue(entry.isOffHeap());
+                stored++;
+            }
+        }
+        assertTrue(stored > 0);
+        assertTrue(cache.weightedSize() <= 1 << 20, "weighted size " + cache.weightedSize());
+    }
+
+    @Test
+    public void testBodiesOverTheEntryLimitPassThroughUncached() throws Exception {
+        body = "x".repeat(65 * 1024);
+
+        MockHttpServletResponse response = get("/api/posts/1");
+
+        assertEquals(body.length(), response.getContentAsByteArray().length);
+        assertEquals(0, cache.estimatedSize());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.secureapi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class TwoLevelCacheTests {
+
+    private ConcurrentMapCache remote;
+    private List<String> published;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    public void setup() {
+        remote = new ConcurrentMapCache("post");
+        published = new ArrayList<>();
+        cache = new TwoLevelCache("post", new CaffeineCache("post", Caffeine.newBuilder().maximumSize(10).recordStats().build()),
+                remote, published::add);
+    }
+
+    @Test
+    public void testLoaderRunsOnceAndLaterReadsHitLocalTier() {
+        int[] loads = new int[1];
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("post-1", cache.get(1L, () -> {
+                loads[0]++;
+                return "post-1";
+            }));
+        }
+
+        assertEquals(1, loads[0]);
+        assertEquals(1, cache.missCount());
+        assertEquals(2, cache.localHitCount());
+        assertEquals("post-1", remote.get(1L).get());
+    }
+
+    @Test
+    public void testRemoteTierFillsLocalTier() {
+        remote.put(1L, "post-1");
+
+        assertEquals("post-1", cache.get(1L).get());
+        assertEquals("post-1", cache.get(1L).get());
+
+        assertEquals(1, cache.remoteHitCount());
+        assertEquals(1, cache.localHitCount());
+    }
+
+    @Test
+    public void testEvictClearsBothTiersAndPublishesInvalidation() {
+        cache.put(1L, "post-1");
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertNull(remote.get(1L));
+        assertEquals(List.of("1", "1"), published);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.secureapi.compression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.example.secureapi.cache.ResponseCache;
+import com.example.secureapi.cache.ResponseCacheFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class CompressionFilterTests {
+
+    private static final byte[] LARGE = "{\"content\":\"%s\"}".formatted("lorem ipsum ".repeat(200))
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final CompressionFilter filter = new CompressionFilter(
+            List.of(ContentEncoding.BROTLI, ContentEncoding.GZIP), 4, 6, 1024,
+            List.of(MediaType.APPLICATION_JSON, MediaType.parseMediaType("text/*")));
+
+    @Test
+    public void testLargeJsonIsGzippedForGzipClients() throws Exception {
+        MockHttpServletResponse response = perform("gzip, deflate", json(LARGE));
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertTrue(response.getContentAsByteArray().length < LARGE.length / 4);
+        assertArrayEquals(LARGE, new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))
+                .readAllBytes());
+    }
+
+    @Test
+    public void testBrotliIsPreferredWhenAccepted() throws Exception {
+        assumeTrue(ContentEncoding.BROTLI.isAvailable());
+
+        MockHttpServletResponse response = perform("gzip, br", json(LARGE));
+
+        assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream in = new BrotliInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertArrayEquals(LARGE, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testBodiesBelowTheThresholdKeepTheirLength() throws Exception {
+        MockHttpServletResponse response = perform("gzip", json(SMALL));
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(SMALL.length, response.getContentLength());
+        assertArrayEquals(SMALL, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testFlushBelowTheThresholdDoesNotForceCompression() throws Exception {
+        MockHttpServletResponse response = perform("gzip", (request, servletResponse) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) servletResponse;
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write(SMALL);
+            httpResponse.getOutputStream().flush();
+            httpResponse.flushBuffer();
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(SMALL, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testDeclaredLengthIsDroppedWhenCompressing() throws Exception {
+        MockHttpServletResponse response = perform("gzip", (request, servletResponse) -> {
+            servletResponse.setContentLength(LARGE.length);
+            json(LARGE).doFilter(request, servletResponse);
+        });
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    public void testUnlistedContentTypesAndEncodedBodiesAreLeftAlone() throws Exception {
+        MockHttpServletResponse image = perform("gzip", (request, servletResponse) -> {
+            servletResponse.setContentType(MediaType.IMAGE_PNG_VALUE);
+            servletResponse.getOutputStream().write(LARGE);
+        });
+        MockHttpServletResponse proxied = perform("gzip", (request, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+            json(LARGE).doFilter(request, servletResponse);
+        });
+
+        assertNull(image.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(LARGE, image.getContentAsByteArray());
+        assertEquals("br", proxied.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(LARGE, proxied.getContentAsByteArray());
+    }
+
+    @Test
+    public void testClientsWithoutAcceptEncodingGetIdentity() throws Exception {
+        MockHttpServletResponse none = perform(null, json(LARGE));
+        MockHttpServletResponse refused = perform("gzip;q=0, identity", json(LARGE));
+
+        assertNull(none.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(refused.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(LARGE, refused.getContentAsByteArray());
+    }
+
+    @Test
+    public void testStaleCacheHitReachesTheClientWholeBeforeTheRefresh() throws Exception {
+        AtomicLong nanos = new AtomicLong(1);
+        ResponseCacheFilter cacheFilter = new ResponseCacheFilter(new ResponseCache(1 << 20, 64 * 1024, 1024,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), nanos::get), Duration.ofSeconds(5));
+
+        for (byte[] body : List.of(LARGE, SMALL)) {
+            String path = "/api/posts/" + body.length;
+            MockHttpServletResponse stale = new MockHttpServletResponse();
+            AtomicInteger calls = new AtomicInteger();
+            List<byte[]> sentBeforeRefresh = new ArrayList<>();
+            FilterChain handler = (request, servletResponse) -> {
+                if (calls.incrementAndGet() == 2) {
+                    sentBeforeRefresh.add(decode(stale));
+                }
+                HttpServletResponse httpResponse = (HttpServletResponse) servletResponse;
+                httpResponse.setHeader(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=10, stale-while-revalidate=30");
+                json(body).doFilter(request, servletResponse);
+            };
+            FilterChain chain = (request, servletResponse) -> cacheFilter.doFilter(request, servletResponse, handler);
+
+            filter.doFilter(gzipRequest(path), new MockHttpServletResponse(), chain);
+            nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+            filter.doFilter(gzipRequest(path), stale, chain);
+
+            assertEquals("STALE", stale.getHeader(ResponseCacheFilter.CACHE_STATUS_HEADER));
+            assertEquals(2, calls.get());
+            assertArrayEquals(body, sentBeforeRefresh.get(0));
+            assertArrayEquals(body, decode(stale));
+        }
+    }
+
+    @Test
+    public void testStrongETagNamesTheCodingAndValidatorsAreComparedWithoutIt() throws Exception {
+        FilterChain tagged = (request, response) -> {
+            if (new ServletWebRequest((HttpServletRequest) request, (HttpServletResponse) response)
+                    .checkNotModified("\"3\"")) {
+                return;
+            }
+            json(LARGE).doFilter(request, response);
+        };
+
+        MockHttpServletResponse gzipped = perform("gzip", tagged);
+        MockHttpServletResponse identity = perform(null, tagged);
+        MockHttpServletRequest conditional = gzipRequest("/api/posts/1");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3-gzip\"");
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        filter.doFilter(conditional, notModified, tagged);
+
+        assertEquals("\"3-gzip\"", gzipped.getHeader(HttpHeaders.ETAG));
+        assertEquals("\"3\"", identity.getHeader(HttpHeaders.ETAG));
+        assertEquals(304, notModified.getStatus());
+        assertEquals("W/\"3\"", ContentEncoding.GZIP.eTag("W/\"3\""));
+        assertEquals("\"3\", \"4\"", ContentEncoding.stripETagSuffixes("\"3-br\", \"4-gzip\""));
+    }
+
+    @Test
+    public void testNegotiationHonoursWeightsAndWildcards() {
+        List<ContentEncoding> offered = List.of(ContentEncoding.BROTLI, ContentEncoding.GZIP);
+
+        assertEquals(ContentEncoding.BROTLI, ContentEncoding.negotiate("gzip, br", offered));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("br;q=0.5, gzip", offered));
+        assertEquals(ContentEncoding.BROTLI, ContentEncoding.negotiate("*", offered));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*;q=0.1, br;q=0", offered));
+        assertNull(ContentEncoding.negotiate("br", List.of(ContentEncoding.GZIP)));
+        assertNull(ContentEncoding.negotiate("identity", offered));
+    }
+
+    private static MockHttpServletRequest gzipRequest(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        return request;
+    }
+
+    private static byte[] decode(MockHttpServletResponse response) throws IOException {
+        byte[] content = response.getContentAsByteArray();
+        if (!"gzip".equals(response.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            assertEquals(content.length, response.getContentLength());
+            return content;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private MockHttpServletResponse perform(String acceptEncoding, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static FilterChain json(byte[] body) {
+        return (request, response) -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(body);
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.secureapi.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.dto.PostPage;
+import com.example.secureapi.dto.PostSummary;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Round-trips the Redis cache tier through a real redis-server, reading back on a second node so
+ * the value comes from Redis rather than the local tier.
+ */
+public class CacheConfigRedisTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = RedisServer.newRedisServer().port(port).bind("127.0.0.1").setting("save \"\"").build();
+        server.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @BeforeEach
+    public void flush() {
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    public void testPostIsReadBackAsItsOwnType() {
+        PostDetail post = new PostDetail(1L, "title", "content", 2L, "alice", CREATED, CREATED, 0L);
+        cacheManager().getCache(CacheConfig.POST_CACHE).put(1L, post);
+
+        assertEquals(post, cacheManager().getCache(CacheConfig.POST_CACHE).get(1L).get());
+    }
+
+    @Test
+    public void testPageItemsAreReadBackAsTheirElementType() {
+        PostPage<PostSummary> page = new PostPage<>(List.of(new PostSummary(1L, "title", "alice", CREATED, CREATED)), "next");
+        cacheManager().getCache(CacheConfig.POST_LIST_CACHE).put("summary::20", page);
+
+        PostPage<?> cached = (PostPage<?>) cacheManager().getCache(CacheConfig.POST_LIST_CACHE).get("summary::20").get();
+
+        assertInstanceOf(PostSummary.class, cached.items().get(0));
+        assertEquals(page, cached);
+    }
+
+    @Test
+    public void testStoredValueCarriesNoTypeInformation() {
+        cacheManager().getCache(CacheConfig.POST_CACHE)
+                .put(1L, new PostDetail(1L, "title", "content", 2L, "alice", CREATED, CREATED, 0L));
+
+        String stored = redis.opsForValue().get("cache:post::1");
+
+        assertFalse(stored.contains("@class"), stored);
+    }
+
+    private static CacheManager cacheManager() {
+        CacheConfig config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "postMaxSize", 100L);
+        ReflectionTestUtils.setField(config, "postListMaxSize", 100L);
+        ReflectionTestUtils.setField(config, "postVersionMaxSize", 100L);
+        ReflectionTestUtils.setField(config, "localTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(config, "redisEnabled", true);
+        ReflectionTestUtils.setField(config, "redisTtl", Duration.ofMinutes(1));
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("redisConnectionFactory", connectionFactory);
+        beans.registerSingleton("stringRedisTemplate", redis);
+        CacheManager cacheManager = config.cacheManager(beans.getBeanProvider(RedisConnectionFactory.class),
+                beans.getBeanProvider(StringRedisTemplate.class));
+        ((SimpleCacheManager) cacheManager).afterPropertiesSet();
+        return cacheManager;
+    }
+}
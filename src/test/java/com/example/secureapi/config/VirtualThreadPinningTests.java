@@ -0,0 +1,123 @@
+package com.example.secureapi.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.secureapi.security.RateLimitBandwidth;
+import com.example.secureapi.security.RateLimitBucketStore;
+import com.example.secureapi.service.PasswordHashingService;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Runs the blocking paths of our own code on virtual threads under JFR and fails on any
+ * {@code jdk.VirtualThreadPinned} event, i.e. a park while a carrier thread was held.
+ */
+public class VirtualThreadPinningTests {
+
+    private static final int CALLERS = 32;
+
+    @Test
+    public void testPostCacheMissDoesNotPinInVirtualThreadMode() throws Exception {
+        Cache cache = postCache(true);
+
+        assertEquals(0, pinnedEvents(() -> cache.get(Thread.currentThread().threadId() % 4, this::slowLoad)));
+    }
+
+    // JDK 24 no longer pins a virtual thread that blocks inside synchronized (JEP 491)
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_23)
+    public void testPinningIsDetectedForSynchronousCacheLoads() throws Exception {
+        Cache cache = postCache(false);
+
+        assertTrue(pinnedEvents(() -> cache.get(Thread.currentThread().threadId(), this::slowLoad)) > 0);
+    }
+
+    @Test
+    public void testRateLimitStoreDoesNotPinUnderContention() throws Exception {
+        RateLimitBucketStore store = new RateLimitBucketStore(
+                List.of(RateLimitBandwidth.of(1_000_000, Duration.ofSeconds(1))), 1024);
+
+        assertEquals(0, pinnedEvents(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                store.tryConsume("10.0.0." + (i % 4));
+            }
+            return null;
+        }));
+    }
+
+    @Test
+    public void testWaitingForPasswordHashingDoesNotPin() throws Exception {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        PasswordHashingService service = new PasswordHashingService(
+                new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt)), 2, CALLERS);
+        String hash = service.hash("secret");
+        try {
+            assertEquals(0, pinnedEvents(() -> service.verify("secret", hash)));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private String slowLoad() throws InterruptedException {
+        Thread.sleep(50);
+        return "value";
+    }
+
+    private static Cache postCache(boolean virtualThreads) {
+        CacheConfig config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "postMaxSize", 100L);
+        ReflectionTestUtils.setField(config, "postListMaxSize", 100L);
+        ReflectionTestUtils.setField(config, "localTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(config, "virtualThreads", virtualThreads);
+        CacheManager cacheManager = config.cacheManager(null, null);
+        ((SimpleCacheManager) cacheManager).afterPropertiesSet();
+        return cacheManager.getCache(CacheConfig.POST_CACHE);
+    }
+
+    private static long pinnedEvents(Callable<?> task) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < CALLERS; i++) {
+                    futures.add(executor.submit(task));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                    .count();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.secureapi.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.secureapi.audit.AuditLog;
+import com.example.secureapi.config.GlobalExceptionHandler;
+import com.example.secureapi.dto.PostDetail;
+import com.example.secureapi.dto.PostPage;
+import com.example.secureapi.dto.PostVersion;
+import com.example.secureapi.service.InvalidRequestException;
+import com.example.secureapi.service.PostBatchService;
+import com.example.secureapi.service.PostService;
+
+public class PostControllerTests {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 10, 1, 12, 0);
+    private static final String BODY = "{\"title\":\"Title\",\"content\":\"Content\"}";
+
+    private final PostService postService = mock(PostService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new PostController(postService, mock(PostBatchService.class), AuditLog.NOOP,
+                    CacheControl.empty()))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    public void testUnchangedPostIsRevalidatedWithoutLoadingIt() throws Exception {
+        when(postService.getPostVersion(1L)).thenReturn(new PostVersion(3L, UPDATED_AT));
+
+        mockMvc.perform(get("/api/posts/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(postService, never()).getPost(any());
+    }
+
+    @Test
+    public void testChangedPostIsReturnedWithValidators() throws Exception {
+        when(postService.getPostVersion(1L)).thenReturn(new PostVersion(4L, UPDATED_AT));
+        when(postService.getPost(1L)).thenReturn(post(4L));
+
+        mockMvc.perform(get("/api/posts/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void testStaleIfMatchIsRejected() throws Exception {
+        when(postService.updatePost(eq(1L), any(), any())).thenAnswer(invocation -> {
+            LongPredicate expected = invocation.getArgument(2);
+            if (!expected.test(4L)) {
+                throw new OptimisticLockingFailureException("Post 1 is at version 4");
+            }
+            return post(5L);
+        });
+
+        mockMvc.perform(put("/api/posts/1").contentType(MediaType.APPLICATION_JSON).content(BODY)
+                        .header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/posts/1").contentType(MediaType.APPLICATION_JSON).content(BODY)
+                        .header(HttpHeaders.IF_MATCH, "W/\"4\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/posts/1").contentType(MediaType.APPLICATION_JSON).content(BODY)
+                        .header(HttpHeaders.IF_MATCH, "\"2\", \"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    public void testConcurrentWriteWithoutIfMatchIsAConflict() throws Exception {
+        when(postService.updatePost(eq(1L), any(), any()))
+                .thenThrow(new OptimisticLockingFailureException("Row was updated by another transaction"));
+
+        mockMvc.perform(put("/api/posts/1").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void testListingIsLookedUpWithTheClampedLimit() throws Exception {
+        when(postService.pageSize(500)).thenReturn(100);
+        when(postService.getPostSummaries(null, 100)).thenReturn(new PostPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/posts").param("limit", "500"))
+                .andExpect(status().isOk());
+
+        verify(postService).getPostSummaries(null, 100);
+    }
+
+    @Test
+    public void testOnlyInvalidRequestsAreReportedAsBadRequests() throws Exception {
+        when(postService.pageSize(20)).thenReturn(20);
+        when(postService.getPostSummaries("bad", 20)).thenThrow(new InvalidRequestException("Invalid cursor"));
+        when(postService.getPost(1L)).thenThrow(new IllegalArgumentException("internal detail"));
+
+        mockMvc.perform(get("/api/posts").param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid request: Invalid cursor"));
+        mockMvc.perform(get("/api/posts/1"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    private static PostDetail post(long version) {
+        return new PostDetail(1L, "Title", "Content", null, null, UPDATED_AT, UPDATED_AT, version);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.secureapi.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTests {
+
+    private static final long OPEN_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofSeconds(10), 2);
+
+    @Test
+    public void testStaysClosedBelowMinimumCalls() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(true, 0);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire(0));
+    }
+
+    @Test
+    public void testOpensAtFailureRateAndRejectsUntilOpenDurationPassed() {
+        breaker.onResult(false, 0);
+        breaker.onResult(true, 0);
+        breaker.onResult(false, 0);
+        breaker.onResult(true, 0);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(OPEN_NANOS - 1));
+        assertFalse(breaker.isCallPermitted(OPEN_NANOS - 1));
+        assertTrue(breaker.isCallPermitted(OPEN_NANOS));
+    }
+
+    @Test
+    public void testOldOutcomesSlideOutOfTheWindow() {
+        for (int i = 0; i < 10; i++) {
+            breaker.onResult(false, 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(true, 0);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        // the fifth failure pushes a fifth success out of the 10-call window
+        breaker.onResult(true, 0);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    public void testHalfOpenProbesCloseTheBreaker() {
+        open();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertFalse(breaker.tryAcquire(OPEN_NANOS), "only the configured number of probes");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onResult(false, OPEN_NANOS);
+        breaker.onResult(false, OPEN_NANOS);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        breaker.onResult(true, OPEN_NANOS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "the window starts over after closing");
+    }
+
+    @Test
+    public void testFailedProbeReopens() {
+        open();
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+
+        breaker.onResult(true, OPEN_NANOS);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(2 * OPEN_NANOS - 1));
+        assertTrue(breaker.tryAcquire(2 * OPEN_NANOS));
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(true, 0);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
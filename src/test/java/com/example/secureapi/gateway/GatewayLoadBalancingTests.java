@@ -0,0 +1,167 @@
+package com.example.secureapi.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Drives the filter against local stub upstreams that inject latency and errors.
+ */
+public class GatewayLoadBalancingTests {
+
+    private static final long SLOW_MS = 150;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<HttpServer> servers = new ArrayList<>();
+    private URI fast;
+    private URI slow;
+    private URI failing;
+
+    @BeforeEach
+    public void startUpstreams() throws IOException {
+        fast = stub(0, 200);
+        slow = stub(SLOW_MS, 200);
+        failing = stub(0, 503);
+    }
+
+    @AfterEach
+    public void stopUpstreams() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+        client.close();
+    }
+
+    private URI stub(long delayMs, int status) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        servers.add(server);
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    private static UpstreamPolicy policy(int maxConcurrent, int ejectAfterFailures) {
+        return new UpstreamPolicy(maxConcurrent, ejectAfterFailures, Duration.ofSeconds(30), Duration.ofSeconds(5),
+                20, 10, 0.5, Duration.ofSeconds(30), 1);
+    }
+
+    private GatewayProxyFilter filter(UpstreamPool pool) {
+        return new GatewayProxyFilter(RouteTrie.compile(List.of(
+                new GatewayRoute("orders", "/api/orders", Set.of(), pool, false, Duration.ofSeconds(2)))), client);
+    }
+
+    private static MockHttpServletResponse proxy(GatewayProxyFilter filter) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/orders/1"), response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void testEwmaKeepsTheTailOffASlowUpstream() throws Exception {
+        GatewayProxyFilter filter = filter(new UpstreamPool("orders", List.of(fast, slow), LoadBalancer.ewma(),
+                policy(100, 5), null));
+
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            long start = System.nanoTime();
+            assertEquals(200, proxy(filter).getStatus());
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        Collections.sort(latencies);
+
+        long p99 = latencies.get(98);
+        assertTrue(p99 < SLOW_MS, "p99 " + p99 + "ms should not include the slow upstream");
+        assertTrue(latencies.stream().filter(ms -> ms >= SLOW_MS).count() <= 1, latencies.toString());
+    }
+
+    @Test
+    public void testFailingUpstreamIsEjectedAndTrafficMovesOver() throws Exception {
+        GatewayProxyFilter filter = filter(new UpstreamPool("orders", List.of(fast, failing),
+                LoadBalancer.roundRobin(), policy(100, 3), null));
+
+        int errors = 0;
+        for (int i = 0; i < 40; i++) {
+            int status = proxy(filter).getStatus();
+            if (status != 200) {
+                assertEquals(503, status);
+                assertTrue(i < 10, "no errors once ejected, got one at request " + i);
+                errors++;
+            }
+        }
+        assertEquals(3, errors);
+    }
+
+    @Test
+    public void testConcurrencyLimitAnswers503WithoutWaiting() throws Exception {
+        UpstreamPool pool = new UpstreamPool("orders", List.of(slow), LoadBalancer.roundRobin(), policy(1, 5), null);
+        GatewayProxyFilter filter = filter(pool);
+        CompletableFuture<Integer> inFlight = CompletableFuture.supplyAsync(() -> {
+            try {
+                return proxy(filter).getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+        while (pool.upstreams().get(0).outstanding() == 0) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        assertEquals(503, proxy(filter).getStatus());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < SLOW_MS);
+        assertEquals(200, inFlight.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testActiveHealthChecksTakeAFailingUpstreamOutOfRotation() throws Exception {
+        UpstreamPool pool = new UpstreamPool("orders", List.of(fast, failing), LoadBalancer.roundRobin(),
+                policy(100, 100), "/health");
+        UpstreamHealthChecker checker = new UpstreamHealthChecker(List.of(pool), client, Duration.ofSeconds(1), 2);
+        Upstream down = pool.upstreams().get(1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (down.isHealthy() && System.nanoTime() < deadline) {
+            checker.checkAll();
+            Thread.sleep(20);
+        }
+
+        assertFalse(down.isHealthy());
+        assertTrue(pool.upstreams().get(0).isHealthy());
+        GatewayProxyFilter filter = filter(pool);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, proxy(filter).getStatus());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.secureapi.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.secureapi.model.User;
+import com.example.secureapi.security.PrincipalAuthentication;
+import com.example.secureapi.security.UserPrincipal;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the filter against a local stub upstream that echoes the request body and records what it
+ * received.
+ */
+public class GatewayProxyFilterTests {
+
+    private final Map<String, String> received = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private HttpServer upstream;
+    private GatewayProxyFilter filter;
+
+    @BeforeEach
+    public void startUpstream() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", this::echo);
+        upstream.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        upstream.createContext("/truncated", exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            exchange.getResponseBody().write(new byte[10]);
+            exchange.getResponseBody().flush();
+            // closing short of the declared length drops the connection
+            exchange.close();
+        });
+        upstream.start();
+        URI uri = URI.create("http://127.0.0.1:" + upstream.getAddress().getPort());
+        UpstreamPool orders = UpstreamPool.of("orders", uri);
+        orders.bindTo(registry);
+        filter = new GatewayProxyFilter(RouteTrie.compile(List.of(
+                new GatewayRoute("orders", "/api/orders", Set.of(), orders, true,
+                        Duration.ofMillis(500)),
+                new GatewayRoute("down", "/down", Set.of(), UpstreamPool.of("down", URI.create("http://127.0.0.1:1")),
+                        false, Duration.ofSeconds(1)))), client);
+        SecurityContextHolder.getContext().setAuthentication(
+                new PrincipalAuthentication(new UserPrincipal(7L, "alice", User.Role.ADMIN, true)));
+    }
+
+    @AfterEach
+    public void stopUpstream() {
+        SecurityContextHolder.clearContext();
+        upstream.stop(0);
+        client.close();
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        received.put("method", exchange.getRequestMethod());
+        received.put("uri", exchange.getRequestURI().toString());
+        exchange.getRequestHeaders().forEach((name, values) -> received.put(name.toLowerCase(), String.join(",", values)));
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        exchange.getResponseHeaders().add("X-Upstream", "stub");
+        exchange.getResponseHeaders().add("Keep-Alive", "timeout=5");
+        exchange.sendResponseHeaders(201, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    public void testForwardsRequestAndVerifiedIdentity() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders/42/items");
+        request.setQueryString("expand=all");
+        request.setContent("{\"sku\":\"A-1\"}".getBytes());
+        request.addHeader("Content-Type", "application/json");
+        request.addHeader("Authorization", "Bearer token");
+        request.addHeader(GatewayProxyFilter.USER_HEADER, "mallory");
+        request.addHeader(GatewayProxyFilter.ROLES_HEADER, "ADMIN");
+
+        MockHttpServletResponse response = proxy(request);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"sku\":\"A-1\"}", response.getContentAsString());
+        assertEquals("stub", response.getHeader("X-Upstream"));
+        assertNull(response.getHeader("Keep-Alive"));
+        assertEquals("POST", received.get("method"));
+        assertEquals("/42/items?expand=all", received.get("uri"));
+        assertEquals("alice", received.get("x-authenticated-user"));
+        assertEquals("7", received.get("x-authenticated-user-id"));
+        assertEquals("ADMIN", received.get("x-authenticated-roles"));
+        assertEquals("/api/orders", received.get("x-forwarded-prefix"));
+        assertEquals("application/json", received.get("content-type"));
+        assertNull(received.get("authorization"));
+    }
+
+    @Test
+    public void testAnonymousRequestsCarryNoIdentity() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/42");
+        request.addHeader(GatewayProxyFilter.USER_HEADER, "mallory");
+
+        MockHttpServletResponse response = proxy(request);
+
+        assertEquals(201, response.getStatus());
+        assertNull(received.get("x-authenticated-user"));
+        assertNull(received.get("x-authenticated-user-id"));
+        assertNull(received.get("x-authenticated-roles"));
+    }
+
+    @Test
+    public void testStreamsLargeBodiesBothWays() throws Exception {
+        byte[] payload = new byte[3 * 1024 * 1024 + 17];
+        ThreadLocalRandom.current().nextBytes(payload);
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/orders/blob");
+        request.setContent(payload);
+
+        MockHttpServletResponse response = proxy(request);
+
+        assertEquals(201, response.getStatus());
+        assertEquals(Integer.toString(payload.length), received.get("content-length"));
+        assertArrayEquals(payload, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testUnroutedRequestsAreServedLocally() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, received.size());
+    }
+
+    @Test
+    public void testUnreachableUpstreamIsABadGateway() throws Exception {
+        assertEquals(502, proxy(new MockHttpServletRequest("GET", "/down/x")).getStatus());
+    }
+
+    @Test
+    public void testSlowUpstreamIsAGatewayTimeout() throws Exception {
+        assertEquals(504, proxy(new MockHttpServletRequest("GET", "/api/orders/slow")).getStatus());
+    }
+
+    @Test
+    public void testTruncatedUpstreamBodyIsAFailure() {
+        assertThrows(IOException.class, () -> proxy(new MockHttpServletRequest("GET", "/api/orders/truncated")));
+
+        assertEquals(1, registry.get("gateway.upstream.requests").tag("outcome", "failure").timer().count());
+        assertEquals(0, registry.get("gateway.upstream.requests").tag("outcome", "success").timer().count());
+    }
+
+    private MockHttpServletResponse proxy(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
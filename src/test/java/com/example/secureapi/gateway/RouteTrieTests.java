@@ -0,0 +1,60 @@
+package com.example.secureapi.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class RouteTrieTests {
+
+    private static final URI UPSTREAM = URI.create("http://upstream:8080/base");
+
+    private static GatewayRoute route(String id, String path, Set<String> methods, boolean stripPrefix) {
+        return new GatewayRoute(id, path, methods, UpstreamPool.of(id, UPSTREAM), stripPrefix,
+                Duration.ofSeconds(1));
+    }
+
+    private final RouteTrie trie = RouteTrie.compile(List.of(
+            route("orders", "/api/orders", Set.of(), false),
+            route("order-writes", "/api/orders/admin", Set.of("POST", "PUT"), false),
+            route("catalog-read", "/catalog", Set.of("GET"), true),
+            route("catalog-write", "/catalog", Set.of(), true)));
+
+    @Test
+    public void testLongestPrefixWins() {
+        assertEquals("orders", trie.match("GET", "/api/orders").id());
+        assertEquals("orders", trie.match("GET", "/api/orders/42/items").id());
+        assertEquals("order-writes", trie.match("POST", "/api/orders/admin/bulk").id());
+    }
+
+    @Test
+    public void testMethodFallsBackToAShorterPrefix() {
+        assertEquals("orders", trie.match("DELETE", "/api/orders/admin/bulk").id());
+        assertEquals("catalog-read", trie.match("GET", "/catalog/items").id());
+        assertEquals("catalog-write", trie.match("POST", "/catalog/items").id());
+    }
+
+    @Test
+    public void testPrefixesOnlyMatchWholeSegments() {
+        assertNull(trie.match("GET", "/api/ordersx"));
+        assertNull(trie.match("GET", "/api"));
+        assertNull(trie.match("GET", "/api/posts/1"));
+        assertNull(trie.match("GET", "/"));
+        assertEquals("orders", trie.match("GET", "/api/orders/").id());
+    }
+
+    @Test
+    public void testTargetKeepsOrStripsThePrefix() {
+        assertEquals(URI.create("http://upstream:8080/base/api/orders/1?expand=items%2Cuser"),
+                trie.match("GET", "/api/orders/1").target(UPSTREAM, "/api/orders/1", "expand=items%2Cuser"));
+        assertEquals(URI.create("http://upstream:8080/base/items/a%20b"),
+                trie.match("GET", "/catalog/items/a%20b").target(UPSTREAM, "/catalog/items/a%20b", null));
+        assertEquals(URI.create("http://upstream:8080/base/"),
+                trie.match("GET", "/catalog").target(UPSTREAM, "/catalog", null));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.secureapi.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UpstreamPoolTests {
+
+    private static final long MS = 1_000_000L;
+
+    private static final List<URI> URIS = List.of(URI.create("http://a:8080"), URI.create("http://b:8080"));
+
+    private static UpstreamPolicy policy(int maxConcurrent, int ejectAfterFailures) {
+        return new UpstreamPolicy(maxConcurrent, ejectAfterFailures, Duration.ofSeconds(30), Duration.ofSeconds(5),
+                10, 10, 0.5, Duration.ofSeconds(10), 1);
+    }
+
+    private static UpstreamPool pool(LoadBalancer balancer, UpstreamPolicy policy) {
+        return new UpstreamPool("orders", URIS, balancer, policy, null);
+    }
+
+    @Test
+    public void testRoundRobinAlternates() {
+        UpstreamPool pool = pool(LoadBalancer.roundRobin(), policy(10, 5));
+
+        Upstream first = pool.acquire(0);
+        Upstream second = pool.acquire(0);
+
+        assertEquals(List.of("a", "b"), List.of(first.uri().getHost(), second.uri().getHost()));
+    }
+
+    @Test
+    public void testLeastRequestsPicksTheIdleUpstream() {
+        UpstreamPool pool = pool(LoadBalancer.leastRequests(), policy(10, 5));
+        Upstream busy = pool.acquire(0);
+
+        for (int i = 0; i < 3; i++) {
+            Upstream other = pool.acquire(0);
+            assertNotSame(busy, other);
+            other.release(MS, false, 0);
+        }
+    }
+
+    @Test
+    public void testEwmaPrefersTheFasterUpstream() {
+        UpstreamPool pool = pool(LoadBalancer.ewma(), policy(10, 5));
+        Upstream a = pool.upstreams().get(0);
+        Upstream b = pool.upstreams().get(1);
+        a.tryAcquire(0);
+        a.release(200 * MS, false, 0);
+        b.tryAcquire(0);
+        b.release(2 * MS, false, 0);
+
+        for (int i = 0; i < 10; i++) {
+            Upstream chosen = pool.acquire(MS);
+            assertSame(b, chosen);
+            chosen.release(2 * MS, false, MS);
+        }
+        // a's average fades while it is idle, so it gets another chance eventually
+        long later = Duration.ofMinutes(1).toNanos();
+        b.tryAcquire(later);
+        b.release(2 * MS, false, later);
+        assertSame(a, pool.acquire(later));
+    }
+
+    @Test
+    public void testConcurrencyLimitFailsFast() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamPool pool = pool(LoadBalancer.leastRequests(), policy(1, 5));
+        pool.bindTo(registry);
+
+        Upstream first = pool.acquire(0);
+        Upstream second = pool.acquire(0);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(pool.acquire(0));
+        assertEquals(1, registry.get("gateway.upstream.rejected").counter().count());
+
+        first.release(MS, false, 0);
+        assertSame(first, pool.acquire(0));
+    }
+
+    @Test
+    public void testConsecutiveFailuresEjectTheUpstream() {
+        UpstreamPool pool = pool(LoadBalancer.roundRobin(), policy(10, 2));
+        Upstream a = pool.upstreams().get(0);
+        for (int i = 0; i < 2; i++) {
+            a.tryAcquire(0);
+            a.release(MS, true, 0);
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("b", pool.acquire(MS).uri().getHost());
+        }
+        long later = Duration.ofSeconds(30).toNanos();
+        assertEquals(Set.of(a, pool.upstreams().get(1)), Set.of(pool.acquire(later), pool.acquire(later)));
+    }
+
+    @Test
+    public void testOpenCircuitTakesTheUpstreamOutOfRotation() {
+        UpstreamPool pool = pool(LoadBalancer.roundRobin(), policy(100, 100));
+        Upstream a = pool.upstreams().get(0);
+        for (int i = 0; i < 10; i++) {
+            a.tryAcquire(0);
+            a.release(MS, i % 2 == 0, 0);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, a.circuitState());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("b", pool.acquire(MS).uri().getHost());
+        }
+    }
+
+    @Test
+    public void testSlowCallsCountAgainstTheCircuit() {
+        UpstreamPool pool = pool(LoadBalancer.roundRobin(), policy(100, 100));
+        Upstream a = pool.upstreams().get(0);
+        for (int i = 0; i < 10; i++) {
+            a.tryAcquire(0);
+            a.release(Duration.ofSeconds(6).toNanos(), false, 0);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, a.circuitState());
+    }
+
+    @Test
+    public void testActiveHealthChecksNeedAStreakToFlip() {
+        UpstreamPool pool = pool(LoadBalancer.roundRobin(), policy(10, 5));
+        Upstream a = pool.upstreams().get(0);
+
+        a.onHealthCheck(false, 2);
+        assertTrue(a.isHealthy());
+        a.onHealthCheck(false, 2);
+        assertFalse(a.isHealthy());
+        assertEquals("b", pool.acquire(0).uri().getHost());
+        assertEquals("b", pool.acquire(0).uri().getHost());
+
+        a.onHealthCheck(true, 2);
+        a.onHealthCheck(true, 2);
+        assertTrue(a.isHealthy());
+    }
+
+    @Test
+    public void testEmptyPoolIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new UpstreamPool("orders", List.of(), LoadBalancer.roundRobin(), policy(1, 1), null));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.secureapi.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TimedDataSourceTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement prepared = mock(PreparedStatement.class);
+    private final Statement statement = mock(Statement.class);
+
+    private TimedDataSource dataSource(Duration threshold) throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(prepared);
+        when(connection.createStatement()).thenReturn(statement);
+        return new TimedDataSource(pool, new SlowQueryRecorder(registry, threshold, Duration.ofSeconds(1), 0));
+    }
+
+    @Test
+    public void testEveryExecutionIsTimed() throws Exception {
+        TimedDataSource dataSource = dataSource(Duration.ofSeconds(1));
+
+        try (Connection timed = dataSource.getConnection()) {
+            PreparedStatement select = timed.prepareStatement("select 1");
+            select.setLong(1, 42L);
+            select.executeQuery();
+            select.executeQuery();
+            timed.createStatement().execute("delete from posts");
+        }
+
+        assertEquals(3, registry.get("db.statement").timer().count());
+        assertEquals(0, registry.get("db.statement.slow").counter().count());
+    }
+
+    @Test
+    public void testStatementsOverTheThresholdAreCountedSlow() throws Exception {
+        when(prepared.executeUpdate()).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return 1;
+        });
+        TimedDataSource dataSource = dataSource(Duration.ofMillis(1));
+
+        dataSource.getConnection().prepareStatement("update users set role = ?").executeUpdate();
+
+        assertEquals(1, registry.get("db.statement.slow").counter().count());
+    }
+
+    @Test
+    public void testFailedExecutionsAreTimedAndRethrown() throws Exception {
+        when(prepared.executeUpdate()).thenThrow(new SQLException("duplicate key"));
+        TimedDataSource dataSource = dataSource(Duration.ofSeconds(1));
+        PreparedStatement insert = dataSource.getConnection().prepareStatement("insert into users values (?)");
+
+        assertThrows(SQLException.class, insert::executeUpdate);
+        assertEquals(1, registry.get("db.statement").timer().count());
+    }
+
+    @Test
+    public void testProxiesKeepIdentityAndUnwrapToThePool() throws Exception {
+        when(pool.unwrap(AutoCloseable.class)).thenReturn(() -> { });
+        TimedDataSource dataSource = dataSource(Duration.ofSeconds(1));
+        Connection first = dataSource.getConnection();
+
+        assertEquals(first, first);
+        assertNotEquals(first, dataSource.getConnection());
+        assertSame(dataSource, dataSource.unwrap(TimedDataSource.class));
+        // pool metrics find Hikari this way
+        assertSame(pool.unwrap(AutoCloseable.class), dataSource.unwrap(AutoCloseable.class));
+    }
+}
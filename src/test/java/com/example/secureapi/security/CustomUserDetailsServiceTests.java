@@ -0,0 +1,127 @@
+package com.example.secureapi.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.UserRepository;
+
+public class CustomUserDetailsServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CustomUserDetailsService service =
+            new CustomUserDetailsService(userRepository, null, 100, Duration.ofMinutes(1), false, 100,
+                    Duration.ofMinutes(1));
+
+    @Test
+    public void testRepeatedLookupsHitTheCache() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", User.Role.USER, true)));
+
+        UserPrincipal first = service.loadUserByUsername("alice");
+        UserPrincipal second = service.loadUserByUsername("alice");
+
+        assertSame(first, second);
+        assertNull(first.getPassword());
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    public void testInvalidateReloadsTheNewRole() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", User.Role.USER, true)));
+        assertEquals(User.Role.USER, service.loadUserByUsername("alice").role());
+
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", User.Role.ADMIN, false)));
+        assertEquals(User.Role.USER, service.loadUserByUsername("alice").role());
+        service.invalidate("alice");
+
+        UserPrincipal reloaded = service.loadUserByUsername("alice");
+        assertEquals(User.Role.ADMIN, reloaded.role());
+        assertFalse(reloaded.isEnabled());
+    }
+
+    @Test
+    public void testUnknownUsersAreNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+        assertTrue(service.findPrincipal("ghost").isEmpty());
+        assertEquals(0, service.estimatedSize());
+    }
+
+    @Test
+    public void testUnknownUsernamesAreRememberedAsAbsent() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertTrue(service.findCredentials("ghost").isEmpty());
+        assertTrue(service.findCredentials("ghost").isEmpty());
+        assertTrue(service.findPrincipal("ghost").isEmpty());
+
+        verify(userRepository, times(1)).findByUsername("ghost");
+        assertEquals(1, service.estimatedAbsentSize());
+    }
+
+    @Test
+    public void testInvalidateClearsAbsentEntryAfterRegistration() {
+        when(userRepository.findByUsername("newbie")).thenReturn(Optional.empty());
+        assertTrue(service.findCredentials("newbie").isEmpty());
+
+        when(userRepository.findByUsername("newbie")).thenReturn(Optional.of(user("newbie", User.Role.USER, true)));
+        service.invalidate("newbie");
+
+        UserCredentials credentials = service.findCredentials("newbie").orElseThrow();
+        assertEquals("{bcrypt}hash", credentials.passwordHash());
+        assertFalse(credentials.toString().contains("hash="));
+    }
+
+    @Test
+    public void testCredentialsAndPrincipalShareOneLoad() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", User.Role.USER, true)));
+
+        service.findCredentials("alice");
+        service.findPrincipal("alice");
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    public void testLoadRacingWithInvalidationIsNotCached() {
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> {
+            // an admin change lands while the old row is being read
+            service.evictLocal("alice");
+            return Optional.of(user("alice", User.Role.USER, true));
+        });
+
+        service.findPrincipal("alice");
+
+        assertEquals(0, service.estimatedSize());
+    }
+
+    @Test
+    public void testAuthoritiesAreSharedPerRole() {
+        UserPrincipal alice = UserPrincipal.of(user("alice", User.Role.USER, true));
+        UserPrincipal bob = UserPrincipal.of(user("bob", User.Role.USER, true));
+
+        assertSame(alice.getAuthorities(), bob.getAuthorities());
+        assertEquals("ROLE_USER", alice.getAuthorities().iterator().next().getAuthority());
+    }
+
+    private static User user(String username, User.Role role, boolean enabled) {
+        User user = new User(username, "{bcrypt}hash", role);
+        user.setEnabled(enabled);
+        return user;
+    }
+}
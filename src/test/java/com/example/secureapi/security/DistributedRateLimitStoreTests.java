@@ -0,0 +1,104 @@
+package com.example.secureapi.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DistributedRateLimitStoreTests {
+
+    private static final List<RateLimitBandwidth> LIMITS = List.of(RateLimitBandwidth.of(10, Duration.ofMinutes(1)));
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private InMemoryRateLimitTokenSource redis;
+
+    @BeforeEach
+    public void setup() {
+        redis = new InMemoryRateLimitTokenSource(LIMITS, clock::get);
+    }
+
+    @Test
+    public void testNodesShareOneQuota() {
+        DistributedRateLimitStore nodeA = node(DistributedRateLimitStore.FallbackPolicy.LOCAL);
+        DistributedRateLimitStore nodeB = node(DistributedRateLimitStore.FallbackPolicy.LOCAL);
+
+        int allowed = 0;
+        for (int i = 0; i < 40; i++) {
+            DistributedRateLimitStore node = i % 2 == 0 ? nodeA : nodeB;
+            if (node.tryConsume("10.0.0.1", clock.get()).allowed()) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, allowed);
+    }
+
+    @Test
+    public void testMostDecisionsAreLocal() {
+        DistributedRateLimitStore node = node(DistributedRateLimitStore.FallbackPolicy.LOCAL);
+
+        for (int i = 0; i < 30; i++) {
+            node.tryConsume("10.0.0.1", clock.get());
+        }
+
+        // two leases of 5 tokens, then one rejection remembered until the next token is due
+        assertEquals(3, redis.calls());
+        assertEquals(3, node.remoteCallCount());
+    }
+
+    @Test
+    public void testFallsBackToLocalLimitWhenRedisFails() {
+        DistributedRateLimitStore node = node(DistributedRateLimitStore.FallbackPolicy.LOCAL);
+        redis.setFailing(true);
+
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (node.tryConsume("10.0.0.1", clock.get()).allowed()) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, allowed);
+        assertEquals(1, redis.calls());
+        assertEquals(20, node.fallbackCount());
+    }
+
+    @Test
+    public void testLocalFallbackRefillsOnTheCallersClock() {
+        DistributedRateLimitStore node = node(DistributedRateLimitStore.FallbackPolicy.LOCAL);
+        redis.setFailing(true);
+
+        for (int i = 0; i < 10; i++) {
+            node.tryConsume("10.0.0.1", clock.get());
+        }
+        assertFalse(node.tryConsume("10.0.0.1", clock.get()).allowed());
+
+        // one token every 6 s
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertTrue(node.tryConsume("10.0.0.1", clock.get()).allowed());
+        assertFalse(node.tryConsume("10.0.0.1", clock.get()).allowed());
+    }
+
+    @Test
+    public void testRejectPolicyFailsClosed() {
+        DistributedRateLimitStore node = node(DistributedRateLimitStore.FallbackPolicy.REJECT);
+        redis.setFailing(true);
+
+        assertFalse(node.tryConsume("10.0.0.1", clock.get()).allowed());
+
+        redis.setFailing(false);
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertTrue(node.tryConsume("10.0.0.1", clock.get()).allowed());
+    }
+
+    private DistributedRateLimitStore node(DistributedRateLimitStore.FallbackPolicy fallbackPolicy) {
+        return new DistributedRateLimitStore(redis, new RateLimitBucketStore(LIMITS, 1024), fallbackPolicy,
+                5, Duration.ofSeconds(1), Duration.ofSeconds(5), 1024);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.secureapi.security;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process stand-in for {@link RedisRateLimitTokenSource} that applies the same lease script
+ * semantics to a map, so several stores can share one quota in tests.
+ */
+class InMemoryRateLimitTokenSource implements RateLimitTokenSource {
+
+    private final List<RateLimitBandwidth> bandwidths;
+    private final LongSupplier clock;
+    private final Map<String, long[]> tats = new HashMap<>();
+    private int calls;
+    private boolean failing;
+
+    InMemoryRateLimitTokenSource(List<RateLimitBandwidth> bandwidths, LongSupplier clock) {
+        this.bandwidths = bandwidths;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized Grant acquire(String key, long requested) {
+        calls++;
+        if (failing) {
+            throw new IllegalStateException("Redis unavailable");
+        }
+        long now = clock.getAsLong();
+        long[] state = tats.computeIfAbsent(key, k -> new long[bandwidths.size()]);
+        long granted = requested;
+        long retry = 0;
+        for (int i = 0; i < state.length; i++) {
+            long interval = bandwidths.get(i).emissionIntervalNanos();
+            long tolerance = interval * bandwidths.get(i).capacity();
+            long tat = Math.max(state[i], now);
+            long available = Math.floorDiv(tolerance - (tat - now), interval);
+            granted = Math.min(granted, available);
+            if (available < 1) {
+                retry = Math.max(retry, tat + interval - tolerance - now);
+            }
+        }
+        if (granted < 1) {
+            return new Grant(0, retry);
+        }
+        for (int i = 0; i < state.length; i++) {
+            state[i] = Math.max(state[i], now) + granted * bandwidths.get(i).emissionIntervalNanos();
+        }
+        return new Grant(granted, 0);
+    }
+
+    synchronized int calls() {
+        return calls;
+    }
+
+    synchronized void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+}
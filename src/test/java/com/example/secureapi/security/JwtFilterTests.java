@@ -0,0 +1,83 @@
+package com.example.secureapi.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.UserRepository;
+import com.example.secureapi.util.JwtClaimsCache;
+import com.example.secureapi.util.JwtKeyRing;
+import com.example.secureapi.util.JwtUtil;
+import com.example.secureapi.util.TokenDenylist;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class JwtFilterTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtUtil jwtUtil = new JwtUtil(new JwtClaimsCache(100), JwtKeyRing.generate(Jwts.SIG.ES256),
+            new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48)));
+    private final JwtFilter filter = new JwtFilter(authentication -> authentication, jwtUtil,
+            new SecurityMetrics(registry),
+            new CustomUserDetailsService(userRepository, null, 100, Duration.ofMinutes(1), false, 100,
+                    Duration.ofMinutes(1)));
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testRoleComesFromTheAccountNotTheToken() throws Exception {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", User.Role.READ_ONLY, true)));
+
+        Authentication authentication = authenticate(jwtUtil.generateToken("alice", "ADMIN"));
+
+        assertEquals("alice", authentication.getName());
+        assertSame(UserPrincipal.authorities(User.Role.READ_ONLY), authentication.getAuthorities());
+    }
+
+    @Test
+    public void testDisabledAccountIsNotAuthenticated() throws Exception {
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user("bob", User.Role.USER, false)));
+
+        assertNull(authenticate(jwtUtil.generateToken("bob", "USER")));
+        assertEquals(1, registry.get("auth.failures").tag("reason", "inactive_account").counter().count());
+    }
+
+    @Test
+    public void testDeletedAccountIsNotAuthenticated() throws Exception {
+        when(userRepository.findByUsername("carol")).thenReturn(Optional.empty());
+
+        assertNull(authenticate(jwtUtil.generateToken("carol", "USER")));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(String username, User.Role role, boolean enabled) {
+        User user = new User(username, "{bcrypt}hash", role);
+        user.setEnabled(enabled);
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.secureapi.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class RateLimitBucketStoreTests {
+
+    private static final List<RateLimitBandwidth> LIMITS = List.of(RateLimitBandwidth.of(10, Duration.ofMinutes(1)));
+
+    @Test
+    public void testBurstThenRejectWithRetryAfter() {
+        RateLimitBucketStore store = new RateLimitBucketStore(LIMITS, 1024);
+        long now = 1_000_000_000L;
+
+        for (int i = 0; i < 10; i++) {
+            RateLimitStore.Probe probe = store.tryConsume("10.0.0.1", now);
+            assertTrue(probe.allowed());
+            assertEquals(9 - i, probe.remaining());
+        }
+
+        RateLimitStore.Probe rejected = store.tryConsume("10.0.0.1", now);
+        assertFalse(rejected.allowed());
+        assertEquals(Duration.ofSeconds(6).toNanos(), rejected.retryAfterNanos());
+        assertTrue(store.tryConsume("10.0.0.1", now + Duration.ofSeconds(6).toNanos()).allowed());
+    }
+
+    @Test
+    public void testIdleBucketsAreEvicted() {
+        RateLimitBucketStore store = new RateLimitBucketStore(LIMITS, 1024);
+        long now = 1_000_000_000L;
+
+        store.tryConsume("10.0.0.1", now);
+        store.tryConsume("10.0.0.2", now);
+        assertEquals(2, store.size());
+
+        store.evictIdle(now + Duration.ofSeconds(6).toNanos());
+
+        assertEquals(0, store.size());
+        assertEquals(2, store.evictionCount());
+    }
+
+    @Test
+    public void testMemoryStaysFlatWithTenMillionDistinctKeys() {
+        RateLimitBucketStore store = new RateLimitBucketStore(LIMITS, 65_536);
+        long baseline = usedHeapAfterGc();
+        long now = 1_000_000_000L;
+
+        for (int i = 0; i < 10_000_000; i++) {
+            store.tryConsume(Integer.toString(i), now);
+        }
+
+        long growth = usedHeapAfterGc() - baseline;
+        assertTrue(store.size() <= store.capacity());
+        assertTrue(store.capacity() <= 65_536);
+        assertTrue(store.evictionCount() >= 10_000_000L - store.capacity());
+        assertTrue(growth < 16 * 1024 * 1024, "heap grew by " + growth + " bytes");
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
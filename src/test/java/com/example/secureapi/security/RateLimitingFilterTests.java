@@ -0,0 +1,110 @@
+package com.example.secureapi.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.secureapi.audit.AuditEvent;
+import com.example.secureapi.audit.AuditEventType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RateLimitingFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<AuditEvent> audited = new ArrayList<>();
+
+    private final RateLimitingFilter filter = new RateLimitingFilter(new RateLimitPolicyEngine(List.of(
+            policy("login", List.of("/login"), Set.of(), RateLimitPolicy.KeyType.IP,
+                    List.of(RateLimitBandwidth.of(2, Duration.ofMinutes(1)))),
+            policy("users", List.of("/api/**"), Set.of("USER", "ADMIN"), RateLimitPolicy.KeyType.USER,
+                    List.of(RateLimitBandwidth.of(5, Duration.ofSeconds(1)), RateLimitBandwidth.of(100, Duration.ofHours(1)))),
+            policy("anonymous", List.of(), Set.of(), RateLimitPolicy.KeyType.IP,
+                    List.of(RateLimitBandwidth.of(1, Duration.ofMinutes(1)))))), new SecurityMetrics(registry), audited::add);
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testRejectionIsA429WithRateLimitHeaders() throws Exception {
+        assertEquals(200, perform("POST", "/login").getStatus());
+        assertEquals(200, perform("POST", "/login").getStatus());
+
+        MockHttpServletResponse rejected = perform("POST", "/login");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertEquals("2", rejected.getHeader("X-RateLimit-Limit"));
+        assertEquals("0", rejected.getHeader("X-RateLimit-Remaining"));
+        assertEquals(1, registry.get("ratelimit.rejections").tag("policy", "login").counter().count());
+        assertEquals(3, registry.get("ratelimit.check").timer().count());
+        assertEquals(1, audited.size());
+        assertEquals(AuditEventType.RATE_LIMITED, audited.get(0).type());
+        assertEquals("10.0.0.1", audited.get(0).clientIp());
+        assertEquals("login", audited.get(0).detail());
+    }
+
+    @Test
+    public void testAuthenticatedUsersGetTheirOwnBurst() throws Exception {
+        authenticate("test_user", "USER");
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = perform("GET", "/api/posts/1");
+            assertEquals(200, response.getStatus());
+            assertEquals(Integer.toString(4 - i), response.getHeader("X-RateLimit-Remaining"));
+        }
+        assertEquals(429, perform("GET", "/api/posts/1").getStatus());
+
+        authenticate("other_user", "USER");
+        assertEquals(200, perform("GET", "/api/posts/1").getStatus());
+    }
+
+    @Test
+    public void testAnonymousCallersFallThroughToIpPolicy() throws Exception {
+        assertEquals(200, perform("GET", "/api/posts/1").getStatus());
+        assertEquals(429, perform("GET", "/api/posts/1").getStatus());
+    }
+
+    @Test
+    public void testRoutePatterns() {
+        assertTrue(RoutePattern.compile("/api/**").matches("/api"));
+        assertTrue(RoutePattern.compile("/api/**").matches("/api/posts/1"));
+        assertTrue(RoutePattern.compile("/api/posts/*").matches("/api/posts/1/"));
+        assertFalse(RoutePattern.compile("/api/posts/*").matches("/api/posts/1/comments"));
+        assertFalse(RoutePattern.compile("/api/posts/*").matches("/api/posts/"));
+        assertFalse(RoutePattern.compile("/login").matches("/login-page"));
+    }
+
+    private MockHttpServletResponse perform(String method, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+
+    private static RateLimitPolicy policy(String name, List<String> routes, Set<String> roles, RateLimitPolicy.KeyType keyType,
+            List<RateLimitBandwidth> bandwidths) {
+        return new RateLimitPolicy(name, routes, List.of(), roles, keyType, bandwidths, new RateLimitBucketStore(bandwidths, 1024));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.secureapi.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Runs the lease script in a real redis-server; {@link InMemoryRateLimitTokenSource} stands in for
+ * it everywhere else.
+ */
+public class RedisRateLimitTokenSourceTests {
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = RedisServer.newRedisServer().port(port).bind("127.0.0.1").setting("save \"\"").build();
+        server.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @BeforeEach
+    public void flush() {
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    public void testLeasesUpToCapacityThenReportsTheWait() {
+        RedisRateLimitTokenSource source = source(List.of(RateLimitBandwidth.of(10, Duration.ofMinutes(1))));
+
+        assertEquals(4, source.acquire("10.0.0.1", 4).granted());
+        assertEquals(4, source.acquire("10.0.0.1", 4).granted());
+        assertEquals(2, source.acquire("10.0.0.1", 4).granted());
+
+        RateLimitTokenSource.Grant empty = source.acquire("10.0.0.1", 4);
+        assertEquals(0, empty.granted());
+        // one token every 6 s
+        assertTrue(empty.retryAfterNanos() > 0 && empty.retryAfterNanos() <= Duration.ofSeconds(6).toNanos(),
+                () -> "retry after " + empty.retryAfterNanos());
+        assertEquals(4, source.acquire("10.0.0.2", 4).granted());
+    }
+
+    @Test
+    public void testTightestBandwidthBoundsTheLease() {
+        RedisRateLimitTokenSource source = source(List.of(RateLimitBandwidth.of(100, Duration.ofMinutes(1)),
+                RateLimitBandwidth.of(3, Duration.ofSeconds(1))));
+
+        assertEquals(3, source.acquire("alice", 10).granted());
+        assertEquals(0, source.acquire("alice", 10).granted());
+    }
+
+    @Test
+    public void testKeysExpireOnceTheBucketHasRefilled() {
+        RedisRateLimitTokenSource source = source(List.of(RateLimitBandwidth.of(10, Duration.ofMinutes(1))));
+
+        source.acquire("10.0.0.1", 5);
+
+        Long ttl = redis.getExpire("rl:{10.0.0.1}:0", TimeUnit.MILLISECONDS);
+        // five tokens at 6 s each
+        assertTrue(ttl != null && ttl > 0 && ttl <= 30_000, () -> "ttl " + ttl);
+    }
+
+    @Test
+    public void testNodesShareOneQuota() {
+        List<RateLimitBandwidth> limits = List.of(RateLimitBandwidth.of(10, Duration.ofMinutes(1)));
+        RedisRateLimitTokenSource source = source(limits);
+        DistributedRateLimitStore nodeA = node(source, limits);
+        DistributedRateLimitStore nodeB = node(source, limits);
+
+        int allowed = 0;
+        for (int i = 0; i < 40; i++) {
+            if ((i % 2 == 0 ? nodeA : nodeB).tryConsume("10.0.0.1").allowed()) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, allowed);
+        assertEquals(0, nodeA.fallbackCount() + nodeB.fallbackCount());
+    }
+
+    private static RedisRateLimitTokenSource source(List<RateLimitBandwidth> bandwidths) {
+        return new RedisRateLimitTokenSource(redis, "rl", bandwidths);
+    }
+
+    private static DistributedRateLimitStore node(RateLimitTokenSource source, List<RateLimitBandwidth> limits) {
+        return new DistributedRateLimitStore(source, new RateLimitBucketStore(limits, 1024),
+                DistributedRateLimitStore.FallbackPolicy.REJECT, 5, Duration.ofSeconds(1), Duration.ofSeconds(5), 1024);
+    }
+}
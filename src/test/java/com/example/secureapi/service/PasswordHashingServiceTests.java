@@ -0,0 +1,125 @@
+package com.example.secureapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordHashingServiceTests {
+
+    private static PasswordEncoder encoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    @Test
+    void verifiesCurrentHashWithoutRehash() {
+        PasswordHashingService service = new PasswordHashingService(encoder(4), 1, 4);
+        String hash = service.hash("secret");
+
+        PasswordHashingService.Verification verification = service.verify("secret", hash);
+
+        assertTrue(verification.matched());
+        assertNull(verification.upgradedHash());
+        assertFalse(service.verify("wrong", hash).matched());
+        service.shutdown();
+    }
+
+    @Test
+    void rehashesLegacyAndWeakerHashes() {
+        PasswordHashingService service = new PasswordHashingService(encoder(5), 1, 4);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        PasswordHashingService.Verification verification = service.verify("secret", legacy);
+
+        assertTrue(verification.matched());
+        assertNotNull(verification.upgradedHash());
+        assertTrue(verification.upgradedHash().startsWith("{bcrypt}$2a$05$"));
+        assertNull(service.verify("secret", verification.upgradedHash()).upgradedHash());
+        service.shutdown();
+    }
+
+    @Test
+    void unknownUserNeverMatches() {
+        PasswordHashingService service = new PasswordHashingService(encoder(4), 1, 4);
+
+        assertFalse(service.verify("secret", null).matched());
+        service.shutdown();
+    }
+
+    @Test
+    void unknownUserIsCheckedAgainstTheDummyHashOnThePool() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        PasswordEncoder recording = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                threads.add(Thread.currentThread().getName());
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        PasswordHashingService service = new PasswordHashingService(recording, 1, 4);
+        service.verify("wrong", service.hash("secret"));
+
+        assertFalse(service.verify("secret", null).matched());
+
+        assertEquals(2, threads.size());
+        assertTrue(threads.get(1).startsWith("password-hash-"), threads.get(1));
+        service.shutdown();
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                if ("block".contentEquals(rawPassword)) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        PasswordHashingService service = new PasswordHashingService(blocking, 1, 1);
+        String hash = blocking.encode("secret");
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> service.verify("block", hash));
+            started.await(5, TimeUnit.SECONDS);
+            callers.submit(() -> service.verify("secret", hash));
+            while (service.queueSize() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(PasswordHashingBusyException.class, () -> service.verify("secret", hash));
+            assertEquals(1, service.queueSize());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+            service.shutdown();
+        }
+    }
+}
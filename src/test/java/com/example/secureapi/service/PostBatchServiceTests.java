@@ -0,0 +1,132 @@
+package com.example.secureapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.secureapi.dto.BulkItemResult;
+import com.example.secureapi.model.Post;
+import com.example.secureapi.repository.PostRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+class PostBatchServiceTests {
+
+    private static final String POST = """
+            {"id": 7, "title": "title", "content": "content",
+             "createdAt": "2024-01-01T00:00:00", "updatedAt": "2024-01-01T00:00:00"}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private PostRepository repository;
+    private EntityManager entityManager;
+    private PostBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PostRepository.class);
+        entityManager = mock(EntityManager.class);
+        service = new PostBatchService(repository, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager,
+                new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(service, "chunkSize", 500);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createIgnoresClientSuppliedIds() throws IOException {
+        ArgumentCaptor<Iterable<Post>> saved = ArgumentCaptor.forClass(Iterable.class);
+        when(repository.saveAll(saved.capture())).thenReturn(List.of());
+
+        service.createAll(body("[" + POST + "]"), new ByteArrayOutputStream());
+
+        Post post = saved.getValue().iterator().next();
+        assertNull(post.getId());
+        assertNull(post.getVersion());
+    }
+
+    @Test
+    void failedItemReportsAFixedErrorInsteadOfTheExceptionMessage() throws IOException {
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("insert into posts (id) values (?)");
+        when(repository.saveAll(anyIterable())).thenThrow(failure);
+        when(repository.save(any(Post.class))).thenThrow(failure);
+
+        List<BulkItemResult> results = results(out -> service.createAll(body("[" + POST + "]"), out));
+
+        assertEquals(BulkItemResult.Status.FAILED, results.get(0).status());
+        assertEquals(PostBatchService.WRITE_FAILED, results.get(0).error());
+    }
+
+    @Test
+    void updateRetryReportsPostsDeletedSinceTheChunkWasReadAsNotFound() throws IOException {
+        Post post = new Post();
+        post.setId(1L);
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(post));
+        doThrow(new DataIntegrityViolationException("chunk failed")).doNothing().when(entityManager).flush();
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        List<BulkItemResult> results = results(out -> service.updateAll(
+                body("[{\"id\": 1, \"title\": \"title\", \"content\": \"content\"}]"), out));
+
+        assertEquals(BulkItemResult.Status.NOT_FOUND, results.get(0).status());
+        assertNull(results.get(0).error());
+    }
+
+    @Test
+    void deleteReportsOnlyThePostsItDeleted() throws IOException {
+        when(repository.findExistingIds(any())).thenReturn(List.of(1L));
+        List<Long> audited = new ArrayList<>();
+
+        List<BulkItemResult> results = results(out -> service.deleteAll(body("[1, 2]"), out, audited::add));
+
+        assertEquals(BulkItemResult.Status.DELETED, results.get(0).status());
+        assertEquals(BulkItemResult.Status.NOT_FOUND, results.get(1).status());
+        assertEquals(List.of(1L), audited);
+    }
+
+    private List<BulkItemResult> results(BulkCall call) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        call.run(out);
+        return out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, BulkItemResult.class);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private interface BulkCall {
+        void run(ByteArrayOutputStream out) throws IOException;
+    }
+}
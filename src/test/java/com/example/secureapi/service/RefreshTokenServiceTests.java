@@ -0,0 +1,163 @@
+package com.example.secureapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.secureapi.dto.TokenPair;
+import com.example.secureapi.model.RefreshToken;
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.RefreshTokenRepository;
+import com.example.secureapi.security.CustomUserDetailsService;
+import com.example.secureapi.security.SecurityMetrics;
+import com.example.secureapi.security.UserPrincipal;
+import com.example.secureapi.util.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshTokenServiceTests {
+
+    private RefreshTokenRepository repository;
+    private CustomUserDetailsService userDetailsService;
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry registry;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        userDetailsService = mock(CustomUserDetailsService.class);
+        when(userDetailsService.findPrincipal("alice"))
+                .thenReturn(Optional.of(new UserPrincipal(1L, "alice", User.Role.USER, true)));
+        jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.generateToken(anyString(), anyString())).thenReturn("access");
+        registry = new SimpleMeterRegistry();
+        service = new RefreshTokenService(repository, userDetailsService, jwtUtil,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SecurityMetrics(registry),
+                Duration.ofHours(1), 2);
+    }
+
+    @Test
+    void issueStoresOnlyTheHash() {
+        TokenPair pair = service.issue("alice", "USER");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertEquals("access", pair.accessToken());
+        assertEquals(RefreshTokenService.hash(pair.refreshToken()), saved.getValue().getTokenHash());
+        assertNotEquals(pair.refreshToken(), saved.getValue().getTokenHash());
+    }
+
+    @Test
+    void rotateIssuesNextTokenInSameFamily() {
+        RefreshToken stored = stored("raw", Instant.now().plusSeconds(60));
+        when(repository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(repository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(1);
+
+        TokenPair pair = service.rotate("raw").orElseThrow();
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertEquals("family", saved.getValue().getFamilyId());
+        assertEquals(RefreshTokenService.hash(pair.refreshToken()), saved.getValue().getTokenHash());
+        verify(repository, never()).deleteFamily(anyString());
+    }
+
+    @Test
+    void rotateKeepsTheFamilyExpiryAndTakesTheCurrentRole() {
+        Instant familyExpiry = Instant.now().plusSeconds(60);
+        RefreshToken stored = stored("raw", familyExpiry);
+        when(repository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(repository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(1);
+        when(userDetailsService.findPrincipal("alice"))
+                .thenReturn(Optional.of(new UserPrincipal(1L, "alice", User.Role.ADMIN, true)));
+
+        service.rotate("raw").orElseThrow();
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertEquals(familyExpiry, saved.getValue().getExpiresAt());
+        assertEquals("ADMIN", saved.getValue().getRole());
+        verify(jwtUtil).generateToken("alice", "ADMIN");
+    }
+
+    @Test
+    void rotateRevokesTheFamilyOfADisabledOrDeletedAccount() {
+        RefreshToken stored = stored("raw", Instant.now().plusSeconds(60));
+        when(repository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(repository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(1);
+        when(userDetailsService.findPrincipal("alice"))
+                .thenReturn(Optional.of(new UserPrincipal(1L, "alice", User.Role.USER, false)))
+                .thenReturn(Optional.empty());
+
+        assertTrue(service.rotate("raw").isEmpty());
+        assertTrue(service.rotate("raw").isEmpty());
+        verify(repository, times(2)).deleteFamily("family");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void reuseRevokesWholeFamily() {
+        RefreshToken stored = stored("raw", Instant.now().plusSeconds(60));
+        when(repository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(repository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(0);
+
+        assertTrue(service.rotate("raw").isEmpty());
+        verify(repository).deleteFamily("family");
+        verify(repository, never()).save(any());
+        assertEquals(1, registry.get("auth.failures").tag("reason", "refresh_token_reuse").counter().count());
+    }
+
+    @Test
+    void unknownOrExpiredTokensAreRejected() {
+        RefreshToken expired = stored("expired", Instant.now().minusSeconds(1));
+        when(repository.findById(expired.getTokenHash())).thenReturn(Optional.of(expired));
+
+        assertTrue(service.rotate("expired").isEmpty());
+        assertTrue(service.rotate("unknown").isEmpty());
+        assertTrue(service.rotate(null).isEmpty());
+        verify(repository, never()).markUsed(anyString(), any());
+    }
+
+    @Test
+    void deleteExpiredRunsInBatchesUntilShortBatch() {
+        when(repository.findExpiredTokenHashes(any(), any()))
+                .thenReturn(List.of("a", "b"))
+                .thenReturn(List.of("c", "d"))
+                .thenReturn(List.of("e"));
+
+        assertEquals(5, service.deleteExpired());
+        verify(repository, times(3)).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void deleteExpiredWithNothingToDelete() {
+        when(repository.findExpiredTokenHashes(any(), any())).thenReturn(Collections.emptyList());
+
+        assertEquals(0, service.deleteExpired());
+    }
+
+    private static RefreshToken stored(String raw, Instant expiresAt) {
+        return new RefreshToken(RefreshTokenService.hash(raw), "family", "alice", "USER", expiresAt);
+    }
+}
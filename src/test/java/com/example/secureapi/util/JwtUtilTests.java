@@ -0,0 +1,123 @@
+package com.example.secureapi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+
+public class JwtUtilTests {
+
+    private JwtUtil jwtUtil;
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    public void setup() {
+        denylist = new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48));
+        jwtUtil = new JwtUtil(new JwtClaimsCache(100), JwtKeyRing.generate(Jwts.SIG.ES256), denylist);
+    }
+
+    @Test
+    public void testVerifyReturnsClaimsFromSingleParse() {
+        String token = jwtUtil.generateToken("test_user", "USER");
+
+        VerifiedClaims claims = jwtUtil.verify(token).orElseThrow();
+
+        assertEquals("test_user", claims.subject());
+        assertEquals("USER", claims.role());
+        assertTrue(claims.expiresAtMillis() > System.currentTimeMillis());
+    }
+
+    @Test
+    public void testRepeatedTokenIsServedFromCache() {
+        String token = jwtUtil.generateToken("test_user", "USER");
+        JwtClaimsCache cache = jwtUtil.getClaimsCache();
+
+        jwtUtil.verify(token);
+        jwtUtil.verify(token);
+        jwtUtil.getUsernameFromToken(token);
+
+        assertEquals(1, cache.missCount());
+        assertEquals(2, cache.hitCount());
+    }
+
+    @Test
+    public void testInvalidTokenIsRejectedAndNotCached() {
+        String token = jwtUtil.generateToken("test_user", "USER") + "tampered";
+
+        assertFalse(jwtUtil.validateToken(token));
+        assertFalse(jwtUtil.validateToken(token));
+        assertEquals(0, jwtUtil.getClaimsCache().size());
+    }
+
+    @Test
+    public void testRevokedTokenIsRejectedEvenWhenCached() {
+        String token = jwtUtil.generateToken("test_user", "USER");
+        VerifiedClaims claims = jwtUtil.verify(token).orElseThrow();
+
+        denylist.revoke(claims.tokenId(), claims.expiresAtMillis());
+
+        assertFalse(jwtUtil.validateToken(token));
+        assertTrue(jwtUtil.validateToken(jwtUtil.generateToken("test_user", "USER")));
+    }
+
+    @Test
+    public void testTokenCarriesKidOfSigningKey() {
+        String token = jwtUtil.generateToken("test_user", "USER");
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertTrue(header.contains("\"kid\":\"" + jwtUtil.getKeyRing().signingKey().kid() + "\""));
+    }
+
+    @Test
+    public void testRotationKeepsOldTokensValidUntilRetired() {
+        JwtKeyRing keyRing = jwtUtil.getKeyRing();
+        String oldKid = keyRing.signingKey().kid();
+        String oldToken = jwtUtil.generateToken("test_user", "USER");
+
+        keyRing.rotate(JwtKeyRing.generateKey(Jwts.SIG.EdDSA));
+        String newToken = jwtUtil.generateToken("test_user", "USER");
+
+        assertEquals("test_user", jwtUtil.parseClaims(oldToken).subject());
+        assertEquals("test_user", jwtUtil.parseClaims(newToken).subject());
+
+        keyRing.retire(oldKid);
+        assertThrows(Exception.class, () -> jwtUtil.parseClaims(oldToken));
+        assertEquals("test_user", jwtUtil.parseClaims(newToken).subject());
+        assertThrows(IllegalArgumentException.class, () -> keyRing.retire(keyRing.signingKey().kid()));
+    }
+
+    @Test
+    public void testTokenFromUnknownKeyRingIsRejected() {
+        JwtUtil other = new JwtUtil(new JwtClaimsCache(100), JwtKeyRing.generate(Jwts.SIG.ES256),
+                new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48)));
+
+        assertFalse(jwtUtil.validateToken(other.generateToken("test_user", "USER")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testJwksPublishesPublicKeysOnly() {
+        JwtKeyRing keyRing = jwtUtil.getKeyRing();
+        keyRing.add(JwtKeyRing.generateKey(Jwts.SIG.ES256));
+
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keyRing.jwks().get("keys");
+
+        assertEquals(2, keys.size());
+        for (Map<String, Object> key : keys) {
+            assertEquals("EC", key.get("kty"));
+            assertEquals("sig", key.get("use"));
+            assertFalse(key.containsKey("d"));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.secureapi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SingleFlightTests {
+
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    public void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(callers.submit(() -> flight.load(1L, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "post-1";
+            })));
+        }
+        waitUntil(() -> flight.loadCount() + flight.sharedCount() == 20);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("post-1", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(19, flight.sharedCount());
+    }
+
+    @Test
+    public void testTimedOutCallerDoesNotCancelTheLoadForOthers() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofMillis(300));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+
+        Future<String> first = callers.submit(() -> flight.load(1L, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw new IllegalStateException(e);
+            }
+            return "post-1";
+        }));
+        waitUntil(() -> flight.loadCount() == 1);
+        Thread.sleep(150);
+        Future<String> second = callers.submit(() -> flight.load(1L, () -> "unused"));
+        waitUntil(() -> flight.sharedCount() == 1);
+
+        Exception timeout = assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertTrue(timeout.getCause() instanceof SingleFlightTimeoutException);
+        release.countDown();
+
+        assertEquals("post-1", second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, interrupted.get());
+    }
+
+    @Test
+    public void testLoadIsCancelledOnceEveryCallerHasLeft() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofMillis(100));
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        assertThrows(SingleFlightTimeoutException.class, () -> flight.load(1L, () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return "stale";
+        }));
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals("fresh", flight.load(1L, () -> "fresh"));
+        assertEquals(2, flight.loadCount());
+    }
+
+    @Test
+    public void testFailureIsSharedButNotRemembered() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5));
+        RuntimeException failure = new RuntimeException("Post not found");
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = callers.submit(() -> flight.load(1L, () -> {
+            await(release);
+            throw failure;
+        }));
+        waitUntil(() -> flight.loadCount() == 1);
+        Future<String> second = callers.submit(() -> flight.load(1L, () -> "unused"));
+        waitUntil(() -> flight.sharedCount() == 1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals("post-1", flight.load(1L, () -> "post-1"));
+    }
+
+    @Test
+    public void testDifferentKeysLoadIndependently() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        flight.bindTo(registry);
+
+        flight.load(1L, () -> "post-1");
+        flight.load(2L, () -> "post-2");
+
+        assertEquals(2, registry.get("single.flight.calls").tag("name", "test").tag("result", "loaded")
+                .functionCounter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.secureapi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenDenylistTests {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long NOW = 1_000 * HOUR;
+
+    @Test
+    public void testRevokedIdIsFoundOnlyForItsExpiry() {
+        TokenDenylist denylist = new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48));
+
+        denylist.revoke("token-a", NOW + 2 * HOUR, NOW);
+
+        assertTrue(denylist.isRevoked("token-a", NOW + 2 * HOUR));
+        assertFalse(denylist.isRevoked("token-b", NOW + 2 * HOUR));
+        assertFalse(denylist.isRevoked("token-a", NOW + 5 * HOUR));
+        assertFalse(denylist.isRevoked(null, NOW + 2 * HOUR));
+    }
+
+    @Test
+    public void testExpiredEntriesAreDroppedPerBucket() {
+        TokenDenylist denylist = new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48));
+        denylist.revoke("short", NOW + HOUR / 2, NOW);
+        denylist.revoke("long", NOW + 24 * HOUR, NOW);
+        denylist.revoke("expired", NOW - 1, NOW);
+        assertEquals(2, denylist.size());
+
+        denylist.evictExpired(NOW + 2 * HOUR);
+
+        assertEquals(1, denylist.size());
+        assertFalse(denylist.isRevoked("short", NOW + HOUR / 2));
+        assertTrue(denylist.isRevoked("long", NOW + 24 * HOUR));
+    }
+
+    @Test
+    public void testBucketSlotsAreReusedAcrossCycles() {
+        TokenDenylist denylist = new TokenDenylist(Duration.ofHours(1), Duration.ofHours(2));
+        denylist.revoke("old", NOW + HOUR, NOW);
+
+        // four buckets later the same slot is reused without an explicit sweep
+        long later = NOW + 4 * HOUR;
+        denylist.revoke("new", later + HOUR, later);
+
+        assertTrue(denylist.isRevoked("new", later + HOUR));
+        assertFalse(denylist.isRevoked("old", NOW + HOUR));
+        assertThrows(IllegalArgumentException.class, () -> denylist.revoke("far", later + 10 * HOUR, later));
+    }
+
+    @Test
+    public void testManyEntriesInOneBucket() {
+        TokenDenylist denylist = new TokenDenylist(Duration.ofHours(1), Duration.ofHours(48));
+        for (int i = 0; i < 100_000; i++) {
+            denylist.revoke("token-" + i, NOW + HOUR, NOW);
+        }
+
+        assertEquals(100_000, denylist.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(denylist.isRevoked("token-" + i, NOW + HOUR));
+        }
+        assertFalse(denylist.isRevoked("token-100000", NOW + HOUR));
+    }
+}